@@ -0,0 +1,47 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.event.ICancellable;
+import dev.westernpine.events.event.IEvent;
+
+/**
+ * The events dispatched by the benchmarks.
+ */
+public final class BenchmarkEvents {
+
+    private BenchmarkEvents() {
+    }
+
+    public static class PlainEvent implements IEvent {
+        public long value;
+    }
+
+    public static class CancellableEvent implements IEvent, ICancellable {
+        public long value;
+        private boolean canceled;
+
+        public CancellableEvent(boolean canceled) {
+            this.canceled = canceled;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return this.canceled;
+        }
+
+        @Override
+        public void setCanceled(boolean canceled) {
+            this.canceled = canceled;
+        }
+    }
+
+    public interface RootEvent extends IEvent {
+    }
+
+    public static abstract class BaseEvent implements RootEvent {
+        public long value;
+    }
+
+    public static class LeafEvent extends BaseEvent {
+    }
+
+}
@@ -0,0 +1,87 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.BaseEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.CancellableEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.LeafEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.RootEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.handler.Priority;
+import dev.westernpine.events.manager.IEventManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A listener with handlers of mixed priorities for each benchmark event.
+ */
+public class BenchmarkListener {
+
+    @EventHandler(priority = Priority.HIGH)
+    public void plainHigh(PlainEvent event) {
+        event.value++;
+    }
+
+    @EventHandler
+    public void plainNormal(PlainEvent event) {
+        event.value++;
+    }
+
+    @EventHandler(priority = Priority.LOW)
+    public void plainLow(PlainEvent event) {
+        event.value++;
+    }
+
+    @EventHandler(priority = Priority.HIGH)
+    public void cancellableHigh(CancellableEvent event) {
+        event.value++;
+    }
+
+    @EventHandler
+    public void cancellableNormal(CancellableEvent event) {
+        event.value++;
+    }
+
+    @EventHandler(priority = Priority.LOW, ignoreCancelled = true)
+    public void cancellableLow(CancellableEvent event) {
+        event.value++;
+    }
+
+    @EventHandler
+    public void root(RootEvent event) {
+    }
+
+    @EventHandler(priority = Priority.HIGH)
+    public void base(BaseEvent event) {
+        event.value++;
+    }
+
+    @EventHandler(priority = Priority.LOW)
+    public void leaf(LeafEvent event) {
+        event.value++;
+    }
+
+    /**
+     * Register handlers for an event, cycling through the listener's priorities.
+     * @param eventManager The event manager to register to.
+     * @param event The event to register handlers for.
+     * @param count The number of handlers to register.
+     * @return The handlers registered.
+     */
+    public static List<Handler> register(IEventManager eventManager, Class<?> event, int count) {
+        List<Method> methods = new ArrayList<>();
+        for(Method method : BenchmarkListener.class.getMethods()) {
+            if(method.isAnnotationPresent(EventHandler.class) && method.getParameterTypes()[0] == event)
+                methods.add(method);
+        }
+        methods.sort((a, b) -> a.getName().compareTo(b.getName())); // Keep the registration order stable between forks.
+
+        List<Handler> handlers = new ArrayList<>();
+        for(int i = 0; i < count; i++)
+            handlers.add(eventManager.registerListener(new BenchmarkListener(), methods.get(i % methods.size())));
+        return handlers;
+    }
+
+}
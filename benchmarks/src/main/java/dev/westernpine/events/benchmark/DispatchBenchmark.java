@@ -0,0 +1,85 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.CancellableEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded dispatch cost, by the number of handlers for the event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"0", "1", "10", "100"})
+    public int handlers;
+
+    private DefaultEventManager eventManager;
+
+    private PlainEvent plain;
+
+    private CancellableEvent cancellable;
+
+    private CancellableEvent canceled;
+
+    @Setup
+    public void setup() {
+        this.eventManager = new DefaultEventManager(false);
+        BenchmarkListener.register(this.eventManager, PlainEvent.class, this.handlers);
+        BenchmarkListener.register(this.eventManager, CancellableEvent.class, this.handlers);
+        this.plain = new PlainEvent();
+        this.cancellable = new CancellableEvent(false);
+        this.canceled = new CancellableEvent(true);
+    }
+
+    @Benchmark
+    public Map<Handler, Exception> plain() {
+        return this.eventManager.call(this.plain);
+    }
+
+    @Benchmark
+    public Map<Handler, Exception> cancellable() {
+        return this.eventManager.call(this.cancellable);
+    }
+
+    /**
+     * Only creates the event when it has listeners, which is the fast path when {@code handlers} is 0.
+     */
+    @Benchmark
+    public Map<Handler, Exception> supplied() {
+        return this.eventManager.call(PlainEvent.class, PlainEvent::new);
+    }
+
+    @Benchmark
+    public boolean hasListeners() {
+        return this.eventManager.hasListeners(PlainEvent.class);
+    }
+
+    /**
+     * Most handlers skip a canceled event, except those that ignore cancellation.
+     */
+    @Benchmark
+    public Map<Handler, Exception> canceled() {
+        return this.eventManager.call(this.canceled);
+    }
+
+}
@@ -0,0 +1,85 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.BaseEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.LeafEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.benchmark.BenchmarkEvents.RootEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of an event whose handlers listen at every level of its type hierarchy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HierarchyBenchmark {
+
+    @Param({"10", "100"})
+    public int handlers;
+
+    private DefaultEventManager eventManager;
+
+    private Method unrelated;
+
+    private Method parent;
+
+    private LeafEvent event;
+
+    @Setup
+    public void setup() throws Exception {
+        this.eventManager = new DefaultEventManager(false);
+        BenchmarkListener.register(this.eventManager, RootEvent.class, this.handlers / 3);
+        BenchmarkListener.register(this.eventManager, BaseEvent.class, this.handlers / 3);
+        BenchmarkListener.register(this.eventManager, LeafEvent.class, this.handlers - 2 * (this.handlers / 3));
+        BenchmarkListener.register(this.eventManager, PlainEvent.class, this.handlers); // Unrelated handlers the resolution must skip.
+        this.unrelated = BenchmarkListener.class.getMethod("plainNormal", PlainEvent.class);
+        this.parent = BenchmarkListener.class.getMethod("base", BaseEvent.class);
+        this.event = new LeafEvent();
+    }
+
+    /**
+     * Dispatch over the cached, merged handler chain.
+     */
+    @Benchmark
+    public Map<Handler, Exception> resolved() {
+        return this.eventManager.call(this.event);
+    }
+
+    /**
+     * A change to an unrelated event's handlers, which should keep the chain cached.
+     */
+    @Benchmark
+    public Map<Handler, Exception> unrelatedChange() {
+        this.eventManager.unregisterListener(this.eventManager.registerListener(new BenchmarkListener(), this.unrelated));
+        return this.eventManager.call(this.event);
+    }
+
+    /**
+     * A change to a parent event's handlers, which requires the chain to be resolved again.
+     */
+    @Benchmark
+    public Map<Handler, Exception> parentChange() {
+        this.eventManager.unregisterListener(this.eventManager.registerListener(new BenchmarkListener(), this.parent));
+        return this.eventManager.call(this.event);
+    }
+
+}
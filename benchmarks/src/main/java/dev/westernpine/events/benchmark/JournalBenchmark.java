@@ -0,0 +1,103 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.journal.EventCodec;
+import dev.westernpine.events.journal.EventJournal;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The cost of journaling each call, against the same call without a journal.
+ * <br>Segments are written to a temporary directory, which can grow to a few gigabytes before it is deleted after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    private static final EventCodec CODEC = new EventCodec() {
+        @Override
+        public boolean encode(IEvent event, ByteBuffer buffer) {
+            buffer.putLong(((PlainEvent) event).value);
+            return true;
+        }
+
+        @Override
+        public IEvent decode(ByteBuffer buffer) {
+            PlainEvent event = new PlainEvent();
+            event.value = buffer.getLong();
+            return event;
+        }
+    };
+
+    private Path directory;
+
+    private EventJournal journal;
+
+    private DefaultEventManager plain;
+
+    private DefaultEventManager journaled;
+
+    private PlainEvent event;
+
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("journal-benchmark");
+        this.journal = new EventJournal(this.directory, CODEC, 64 * 1024 * 1024);
+        this.plain = new DefaultEventManager(false);
+        this.journaled = new DefaultEventManager(false);
+        this.journaled.setJournal(this.journal);
+        BenchmarkListener.register(this.plain, PlainEvent.class, 10);
+        BenchmarkListener.register(this.journaled, PlainEvent.class, 10);
+        this.event = new PlainEvent();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.journal.close();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for(Path path : files.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public Map<Handler, Exception> plain() {
+        return this.plain.call(this.event);
+    }
+
+    @Benchmark
+    public Map<Handler, Exception> journaled() {
+        return this.journaled.call(this.event);
+    }
+
+    @Benchmark
+    public boolean record() {
+        return this.journal.record(this.event);
+    }
+
+}
@@ -0,0 +1,65 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration and unregistration churn, by the number of handlers already registered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int registered;
+
+    private DefaultEventManager eventManager;
+
+    private Method method;
+
+    private PlainEvent event;
+
+    @Setup
+    public void setup() throws Exception {
+        this.eventManager = new DefaultEventManager(false);
+        BenchmarkListener.register(this.eventManager, PlainEvent.class, this.registered);
+        this.method = BenchmarkListener.class.getMethod("plainNormal", PlainEvent.class);
+        this.event = new PlainEvent();
+    }
+
+    @Benchmark
+    public void registerUnregister() {
+        Handler handler = this.eventManager.registerListener(new BenchmarkListener(), this.method);
+        this.eventManager.unregisterListener(handler);
+    }
+
+    /**
+     * Churn followed by a call, which includes resolving the changed handler chain again.
+     */
+    @Benchmark
+    public Map<Handler, Exception> registerUnregisterCall() {
+        registerUnregister();
+        return this.eventManager.call(this.event);
+    }
+
+}
@@ -0,0 +1,67 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.bus.RingBufferEventBus;
+import dev.westernpine.events.bus.WaitStrategy;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing from several producer threads to a ring buffer bus, consumed by one busy-spinning thread.
+ * <br>Throughput is bound by the consumer once the ring is full, so this measures the whole pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    @Param({"1", "10"})
+    public int handlers;
+
+    @Param({"65536"})
+    public int capacity;
+
+    private RingBufferEventBus bus;
+
+    @State(Scope.Thread)
+    public static class ThreadEvent {
+        public final PlainEvent event = new PlainEvent();
+    }
+
+    @Setup
+    public void setup() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        BenchmarkListener.register(eventManager, PlainEvent.class, this.handlers);
+        this.bus = new RingBufferEventBus(eventManager, this.capacity, WaitStrategy.busySpin());
+        this.bus.start(Thread.ofPlatform().daemon().name("ring-consumer").factory());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.bus.close();
+    }
+
+    @Benchmark
+    @Threads(3)
+    public void publish(ThreadEvent state) {
+        this.bus.publish(state.event);
+    }
+
+}
@@ -0,0 +1,79 @@
+package dev.westernpine.events.benchmark;
+
+import dev.westernpine.events.benchmark.BenchmarkEvents.PlainEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded dispatch through one shared event manager.
+ * <br>Run with {@code -t} to compare thread counts, as the dispatch path is expected to scale with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadedDispatchBenchmark {
+
+    @Param({"10"})
+    public int handlers;
+
+    private DefaultEventManager eventManager;
+
+    private Method method;
+
+    @State(Scope.Thread)
+    public static class ThreadEvent {
+        public final PlainEvent event = new PlainEvent();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        this.eventManager = new DefaultEventManager(false);
+        BenchmarkListener.register(this.eventManager, PlainEvent.class, this.handlers);
+        this.method = BenchmarkListener.class.getMethod("plainNormal", PlainEvent.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Map<Handler, Exception> call(ThreadEvent state) {
+        return this.eventManager.call(state.event);
+    }
+
+    /**
+     * Dispatch while another thread churns registrations for the same event.
+     */
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public Map<Handler, Exception> callWhileChurning(ThreadEvent state) {
+        return this.eventManager.call(state.event);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void churn() {
+        this.eventManager.unregisterListener(this.eventManager.registerListener(new BenchmarkListener(), this.method));
+    }
+
+}
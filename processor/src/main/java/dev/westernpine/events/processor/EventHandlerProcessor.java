@@ -0,0 +1,233 @@
+package dev.westernpine.events.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Generates a registrar for every class declaring {@code EventHandler} methods.
+ * <br>
+ * <br>Registrars list the class's listener methods with direct invokers, so they can be registered without scanning the class
+ * <br>or generating invokers at runtime. The runtime picks them up automatically, and falls back to reflection for classes without one.
+ * <br>
+ * <br>The checks {@code registerListener} makes at runtime are reported as compile errors instead, where they can be known at compile time:
+ * <br>- Methods which are not public.
+ * <br>- Methods without exactly 1 parameter of an {@code IEvent} type.
+ * <br>- Abstract methods, whose implementations would not carry the annotation.
+ * <br>Whether a handler is static is checked against the registered instance, so it can only be known at runtime.
+ */
+@SupportedAnnotationTypes(EventHandlerProcessor.EVENT_HANDLER)
+public class EventHandlerProcessor extends AbstractProcessor {
+
+    static final String EVENT_HANDLER = "dev.westernpine.events.handler.EventHandler";
+
+    static final String EVENT = "dev.westernpine.events.event.IEvent";
+
+    static final String REGISTRAR = "dev.westernpine.events.registrar.ListenerRegistrar";
+
+    static final String DESCRIPTOR = "dev.westernpine.events.registrar.ListenerDescriptor";
+
+    static final String SUFFIX = "$$EventRegistrar";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        TypeElement eventHandler = processingEnv.getElementUtils().getTypeElement(EVENT_HANDLER);
+        TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT);
+        if(Objects.isNull(eventHandler) || Objects.isNull(event))
+            return false;
+
+        Set<TypeElement> listeners = new LinkedHashSet<>();
+        Set<TypeElement> invalid = new HashSet<>();
+        for(Element element : round.getElementsAnnotatedWith(eventHandler)) {
+            if(element.getKind() != ElementKind.METHOD)
+                continue;
+
+            ExecutableElement method = (ExecutableElement) element;
+            TypeElement listener = (TypeElement) method.getEnclosingElement();
+            listeners.add(listener);
+            if(!validate(method, event.asType()))
+                invalid.add(listener);
+        }
+
+        for(TypeElement listener : listeners) {
+            if(!invalid.contains(listener))
+                generate(listener, eventHandler, event.asType());
+        }
+
+        return false;
+    }
+
+    /**
+     * Report the runtime registration checks which are known at compile time.
+     * @return Whether the method is a valid listener.
+     */
+    private boolean validate(ExecutableElement method, TypeMirror event) {
+        boolean valid = true;
+
+        if(!method.getModifiers().contains(Modifier.PUBLIC)) {
+            error(method, "Method %s is not public.".formatted(method.getSimpleName()));
+            valid = false;
+        }
+
+        if(method.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(method, "Method %s is abstract. Annotate its implementations instead.".formatted(method.getSimpleName()));
+            valid = false;
+        }
+
+        if(method.getParameters().size() != 1 || !processingEnv.getTypeUtils().isAssignable(method.getParameters().get(0).asType(), event)) {
+            error(method, "Method %s does not have only 1 parameter of type IEvent.".formatted(method.getSimpleName()));
+            valid = false;
+        }
+
+        return valid;
+    }
+
+    private void generate(TypeElement listener, TypeElement eventHandler, TypeMirror event) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(listener).toString();
+        if(!this.generated.add(binaryName))
+            return;
+
+        if(!isAccessible(listener)) {
+            note(listener, "Class %s cannot be referenced from its package, so it will be registered through reflection.".formatted(binaryName));
+            return;
+        }
+
+        // Match Class.getMethods(), which includes inherited methods, but not static methods of interfaces other than the class itself.
+        List<ExecutableElement> methods = new ArrayList<>();
+        for(ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(listener))) {
+            if(!hasAnnotation(method, eventHandler))
+                continue;
+
+            TypeElement declaring = (TypeElement) method.getEnclosingElement();
+            if(method.getModifiers().contains(Modifier.STATIC) && declaring.getKind().isInterface() && !declaring.equals(listener))
+                continue;
+
+            if(!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.ABSTRACT))
+                continue;
+
+            if(method.getParameters().size() != 1 || !processingEnv.getTypeUtils().isAssignable(method.getParameters().get(0).asType(), event))
+                continue;
+
+            if(!isAccessible(declaring, listener)) {
+                note(listener, "Class %s inherits listeners from %s, which cannot be referenced from its package, so it will be registered through reflection.".formatted(binaryName, declaring.getQualifiedName()));
+                return;
+            }
+
+            methods.add(method);
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(listener).getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String listenerName = processingEnv.getTypeUtils().erasure(listener.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        if(!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(EventHandlerProcessor.class.getName()).append("\")\n");
+        source.append("public final class ").append(simpleName).append(" implements ").append(REGISTRAR).append(" {\n\n");
+        source.append("    private static final java.util.List<").append(DESCRIPTOR).append("> LISTENERS = java.util.List.of(");
+        for(int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+            String declaringName = processingEnv.getTypeUtils().erasure(method.getEnclosingElement().asType()).toString();
+            String eventName = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()).toString();
+            String target = isStatic ? listenerName : "((" + listenerName + ") instance)";
+
+            source.append(i == 0 ? "\n" : ",\n");
+            source.append("            new ").append(DESCRIPTOR).append("(")
+                    .append(declaringName).append(".class, \"")
+                    .append(method.getSimpleName()).append("\", ")
+                    .append(eventName).append(".class, ")
+                    .append(isStatic).append(", ")
+                    .append("(instance, event) -> ").append(target).append(".").append(method.getSimpleName()).append("((").append(eventName).append(") event))");
+        }
+        source.append("\n    );\n\n");
+        source.append("    @Override\n");
+        source.append("    public java.util.List<").append(DESCRIPTOR).append("> getListeners() {\n");
+        source.append("        return LISTENERS;\n");
+        source.append("    }\n\n");
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, listener).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException exception) {
+            error(listener, "Unable to generate registrar %s: %s".formatted(qualifiedName, exception.getMessage()));
+        }
+    }
+
+    /**
+     * @return Whether the class can be referenced by name from any class in its package.
+     */
+    private boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while(element instanceof TypeElement current) {
+            if(current.getNestingKind() == NestingKind.LOCAL || current.getNestingKind() == NestingKind.ANONYMOUS)
+                return false;
+            if(current.getModifiers().contains(Modifier.PRIVATE))
+                return false;
+            element = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the class can be referenced by name from the listener's package.
+     */
+    private boolean isAccessible(TypeElement type, TypeElement listener) {
+        if(!isAccessible(type))
+            return false;
+
+        PackageElement typePackage = processingEnv.getElementUtils().getPackageOf(type);
+        PackageElement listenerPackage = processingEnv.getElementUtils().getPackageOf(listener);
+        if(typePackage.equals(listenerPackage))
+            return true;
+
+        Element element = type;
+        while(element instanceof TypeElement current) {
+            if(!current.getModifiers().contains(Modifier.PUBLIC))
+                return false;
+            element = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean hasAnnotation(Element element, TypeElement annotation) {
+        return element.getAnnotationMirrors().stream().anyMatch(mirror -> mirror.getAnnotationType().asElement().equals(annotation));
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+}
@@ -0,0 +1,129 @@
+package dev.westernpine.events.processor;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.registrar.ListenerRegistrar;
+import org.junit.jupiter.api.Assertions;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class EventHandlerProcessorTest {
+
+    private static final String LISTENER = """
+            package example;
+
+            import dev.westernpine.events.event.IEvent;
+            import dev.westernpine.events.handler.EventHandler;
+            import dev.westernpine.events.handler.Priority;
+
+            public class Listener {
+
+                public static class Event implements IEvent {
+                    public int value;
+                }
+
+                @EventHandler(priority = Priority.HIGH)
+                public void onEvent(Event event) {
+                    event.value += 1;
+                }
+
+                @EventHandler
+                public static boolean onStatic(Event event) {
+                    event.value += 10;
+                    return true;
+                }
+
+            }
+            """;
+
+    private static final String INVALID = """
+            package example;
+
+            import dev.westernpine.events.event.IEvent;
+            import dev.westernpine.events.handler.EventHandler;
+
+            public class Invalid {
+
+                @EventHandler
+                void notPublic(IEvent event) {
+                }
+
+                @EventHandler
+                public void twoParameters(IEvent event, IEvent other) {
+                }
+
+                @EventHandler
+                public void notEvent(String event) {
+                }
+
+            }
+            """;
+
+    @org.junit.jupiter.api.Test
+    void generateRegistrar() throws Exception {
+        Path output = Files.createTempDirectory("registrar");
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(output, source("example.Listener", LISTENER));
+        Assertions.assertTrue(diagnostics.stream().noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR), diagnostics.toString());
+
+        try (URLClassLoader loader = new URLClassLoader(new java.net.URL[] {output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> listener = loader.loadClass("example.Listener");
+            Class<?> event = loader.loadClass("example.Listener$Event");
+            ListenerRegistrar registrar = (ListenerRegistrar) loader.loadClass("example.Listener" + EventHandlerProcessor.SUFFIX).getConstructor().newInstance();
+            Assertions.assertEquals(2, registrar.getListeners().size());
+
+            Object instance = listener.getConstructor().newInstance();
+            IEvent value = (IEvent) event.getConstructor().newInstance();
+            registrar.getListeners().forEach(descriptor -> {
+                try {
+                    descriptor.invoker().invoke(descriptor.isStatic() ? null : instance, value);
+                } catch (Throwable throwable) {
+                    Assertions.fail(throwable);
+                }
+            });
+            Assertions.assertEquals(11, event.getField("value").getInt(value));
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void reportInvalidListeners() throws Exception {
+        Path output = Files.createTempDirectory("registrar");
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(output, source("example.Invalid", INVALID));
+        long errors = diagnostics.stream().filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR).count();
+        Assertions.assertEquals(3, errors, diagnostics.toString());
+        Assertions.assertFalse(Files.exists(output.resolve("example/Invalid" + EventHandlerProcessor.SUFFIX + ".class")));
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path output, JavaFileObject source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = new ArrayList<>(List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path"), "-s", output.toString()));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null, List.of(source));
+            task.setProcessors(List.of(new EventHandlerProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', File.separatorChar) + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+}
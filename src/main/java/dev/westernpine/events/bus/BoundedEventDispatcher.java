@@ -0,0 +1,293 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.ICoalescing;
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.IEventManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Queues events for an event manager to call asynchronously, in bounded queues.
+ * <br>
+ * <br>Events are queued in one queue for the dispatcher, or in a queue of their own type when one is configured with {@link #setCapacity(Class, int, OverflowPolicy)}.
+ * <br>Each queue is drained by at most one task on the executor at a time, so events in the same queue are called in the order they were submitted.
+ * <br>When a queue is full, its {@link OverflowPolicy} decides what happens to the submitted event,
+ * <br>so bursts degrade predictably instead of queueing without limit.
+ * <br>
+ * <br>{@link ICoalescing} events are merged into a queued event of the same class and key, so only the merged event is called.
+ */
+public class BoundedEventDispatcher {
+
+    /**
+     * The default executor, which starts a new virtual thread to drain each queue when it has events.
+     */
+    private static final Executor VIRTUAL_EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("events-queue-", 0).factory());
+
+    private final IEventManager eventManager;
+
+    private final Executor executor;
+
+    private final BiConsumer<Handler, Exception> exceptions;
+
+    private final EventQueue queue;
+
+    /**
+     * The queues configured for each event type.
+     */
+    private final ConcurrentHashMap<Class<?>, EventQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * The queue each concrete event type was resolved to.
+     */
+    private final ConcurrentHashMap<Class<?>, EventQueue> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented whenever a queue is configured, so a queue resolved from an older configuration is never cached.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Creates a new bounded event dispatcher.
+     * @param eventManager The event manager to call events through.
+     * @param executor The executor to drain queues on.
+     * @param capacity The capacity of the dispatcher's queue.
+     * @param policy What to do with events submitted while the dispatcher's queue is full.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     * <br>The handler is null when calling a queued event failed outside its handlers.
+     */
+    public BoundedEventDispatcher(IEventManager eventManager, Executor executor, int capacity, OverflowPolicy policy, BiConsumer<Handler, Exception> exceptions) {
+        this.eventManager = Objects.requireNonNull(eventManager, "eventManager");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.exceptions = Objects.requireNonNull(exceptions, "exceptions");
+        this.queue = new EventQueue(capacity, policy);
+    }
+
+    /**
+     * Creates a new bounded event dispatcher, which drains its queues on virtual threads,
+     * <br>and passes handler exceptions to the uncaught exception handler of the thread they were called on.
+     * @param eventManager The event manager to call events through.
+     * @param capacity The capacity of the dispatcher's queue.
+     * @param policy What to do with events submitted while the dispatcher's queue is full.
+     */
+    public BoundedEventDispatcher(IEventManager eventManager, int capacity, OverflowPolicy policy) {
+        this(eventManager, VIRTUAL_EXECUTOR, capacity, policy, BoundedEventDispatcher::uncaughtException);
+    }
+
+    /**
+     * Give an event type a queue of its own.
+     * <br>The queue is used by every event the type can be assigned from, including implementations of an interface,
+     * <br>unless a nearer supertype has a queue of its own. Superclasses are nearer than interfaces at the same depth.
+     * <br>This should be configured before events of the type are submitted, as events already queued stay in their previous queue.
+     * @param event The event type.
+     * @param capacity The capacity of the event type's queue.
+     * @param policy What to do with events submitted while the event type's queue is full.
+     */
+    public void setCapacity(Class<? extends IEvent> event, int capacity, OverflowPolicy policy) {
+        this.queues.put(Objects.requireNonNull(event, "event"), new EventQueue(capacity, policy));
+        this.generation.incrementAndGet();
+        this.resolved.clear();
+    }
+
+    /**
+     * Queue an event to be called asynchronously.
+     * <br>
+     * <br>When the event's queue is full, its overflow policy is applied:
+     * <br>- {@link OverflowPolicy#BLOCK} waits for room. If interrupted meanwhile, the event is dropped and the interrupt is kept.
+     * <br>- {@link OverflowPolicy#DROP_NEWEST} drops the event.
+     * <br>- {@link OverflowPolicy#DROP_OLDEST} drops the oldest queued event instead.
+     * <br>- {@link OverflowPolicy#CALLER_RUNS} calls the event on this thread, before returning.
+     * <br>- {@link OverflowPolicy#COALESCE} replaces the newest queued event of the same type, or drops the event if there is none.
+     * <br>
+     * <br>An {@link ICoalescing} event with the same key as a queued event is merged into it instead, whether or not the queue is full.
+     *
+     * @param event The event to call.
+     * @return Whether the event will be, or was, called, including when merged. This is false when it was dropped.
+     */
+    public boolean submit(IEvent event) {
+        Objects.requireNonNull(event, "event");
+        EventQueue queue = queueFor(event.getClass());
+
+        EventQueue.Offer offer;
+        try {
+            offer = queue.offer(event);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        switch (offer) {
+            case QUEUED -> schedule(queue);
+            case CALLER_RUNS -> this.eventManager.call(event, this.exceptions);
+            case DROPPED -> {
+                return false;
+            }
+            default -> {}
+        }
+        return true;
+    }
+
+    private EventQueue queueFor(Class<?> event) {
+        EventQueue queue = this.resolved.get(event);
+        if(Objects.isNull(queue)) {
+            int generation = this.generation.get();
+            queue = resolve(event);
+            this.resolved.put(event, queue);
+
+            // A queue configured meanwhile may have been missed, and its clear may have already happened.
+            if(this.generation.get() != generation)
+                this.resolved.remove(event, queue);
+        }
+        return queue;
+    }
+
+    /**
+     * Find the queue of the nearest configured supertype, walking superclasses and interfaces breadth first.
+     */
+    private EventQueue resolve(Class<?> event) {
+        if(this.queues.isEmpty())
+            return this.queue;
+
+        Set<Class<?>> visited = new HashSet<>();
+        ArrayDeque<Class<?>> types = new ArrayDeque<>();
+        types.add(event);
+        while(!types.isEmpty()) {
+            Class<?> type = types.poll();
+            if(!visited.add(type))
+                continue;
+
+            EventQueue configured = this.queues.get(type);
+            if(!Objects.isNull(configured))
+                return configured;
+
+            if(!Objects.isNull(type.getSuperclass()))
+                types.add(type.getSuperclass());
+            Collections.addAll(types, type.getInterfaces());
+        }
+        return this.queue;
+    }
+
+    private void schedule(EventQueue queue) {
+        if(!queue.scheduled.compareAndSet(false, true))
+            return;
+
+        try {
+            this.executor.execute(() -> drain(queue));
+        } catch (RejectedExecutionException exception) {
+            queue.scheduled.set(false);
+            throw exception;
+        }
+    }
+
+    private void drain(EventQueue queue) {
+        try {
+            IEvent event;
+            while(!Objects.isNull(event = queue.poll())) {
+                try {
+                    this.eventManager.call(event, this.exceptions);
+                } catch (Throwable throwable) {
+                    // A failed call, such as from a rethrowing sink, must not stop the queue from draining.
+                    fail(throwable);
+                }
+            }
+        } finally {
+            queue.scheduled.set(false);
+
+            // An event queued after the last poll, but before the flag was cleared, would not have scheduled a drain.
+            if(queue.size() > 0) {
+                try {
+                    schedule(queue);
+                } catch (RejectedExecutionException exception) {
+                    // The executor was shut down, so the events left stay queued until the next submit schedules a drain.
+                    fail(exception);
+                }
+            }
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        try {
+            this.exceptions.accept(null, throwable instanceof Exception exception ? exception : new InvocationTargetException(throwable));
+        } catch (Throwable ignored) {
+            // The sink itself failed, so there is nowhere left to report to.
+        }
+    }
+
+    private Set<EventQueue> getQueues() {
+        Set<EventQueue> queues = Collections.newSetFromMap(new IdentityHashMap<>());
+        queues.add(this.queue);
+        queues.addAll(this.queues.values());
+        return queues;
+    }
+
+    /**
+     * @return The number of events queued across every queue.
+     */
+    public int getDepth() {
+        return getQueues().stream().mapToInt(EventQueue::size).sum();
+    }
+
+    /**
+     * @param event The event type.
+     * @return The number of events queued in the queue the event type uses.
+     */
+    public int getDepth(Class<? extends IEvent> event) {
+        return queueFor(event).size();
+    }
+
+    /**
+     * @return The number of events dropped across every queue.
+     */
+    public long getDropped() {
+        return getQueues().stream().mapToLong(EventQueue::getDropped).sum();
+    }
+
+    /**
+     * @param event The event type.
+     * @return The number of events dropped by the queue the event type uses.
+     */
+    public long getDropped(Class<? extends IEvent> event) {
+        return queueFor(event).getDropped();
+    }
+
+    /**
+     * @return The number of queued events replaced by, or merged with, a newer event across every queue.
+     */
+    public long getReplaced() {
+        return getQueues().stream().mapToLong(EventQueue::getReplaced).sum();
+    }
+
+    /**
+     * @param event The event type.
+     * @return The capacity of the queue the event type uses.
+     */
+    public int getCapacity(Class<? extends IEvent> event) {
+        return queueFor(event).getCapacity();
+    }
+
+    /**
+     * @param event The event type.
+     * @return The overflow policy of the queue the event type uses.
+     */
+    public OverflowPolicy getPolicy(Class<? extends IEvent> event) {
+        return queueFor(event).getPolicy();
+    }
+
+    private static void uncaughtException(Handler handler, Exception exception) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+}
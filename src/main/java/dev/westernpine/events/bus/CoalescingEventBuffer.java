@@ -0,0 +1,121 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.ICoalescing;
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.IEventManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Buffers events between flushes, merging {@link ICoalescing} events with the same key while they wait.
+ * <br>
+ * <br>Events can be added from any thread, and are called in the order they were added when flushed, such as once per tick.
+ * <br>A merged event keeps the position of the first event it was merged with,
+ * <br>so a "latest value wins" event that fires many times between flushes only runs its handlers once.
+ */
+public class CoalescingEventBuffer {
+
+    private final IEventManager eventManager;
+
+    private final BiConsumer<Handler, Exception> exceptions;
+
+    private final EventQueue queue;
+
+    /**
+     * Creates a new coalescing event buffer.
+     * @param eventManager The event manager to call events through.
+     * @param capacity The most events to buffer, after merging.
+     * @param policy What to do with events added while the buffer is full.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     * <br>The handler is null when calling a buffered event failed outside its handlers.
+     */
+    public CoalescingEventBuffer(IEventManager eventManager, int capacity, OverflowPolicy policy, BiConsumer<Handler, Exception> exceptions) {
+        this.eventManager = Objects.requireNonNull(eventManager, "eventManager");
+        this.exceptions = Objects.requireNonNull(exceptions, "exceptions");
+        this.queue = new EventQueue(capacity, policy);
+    }
+
+    /**
+     * Creates a new coalescing event buffer, without a capacity.
+     * @param eventManager The event manager to call events through.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     */
+    public CoalescingEventBuffer(IEventManager eventManager, BiConsumer<Handler, Exception> exceptions) {
+        this(eventManager, Integer.MAX_VALUE, OverflowPolicy.BLOCK, exceptions);
+    }
+
+    /**
+     * Buffer an event until the next flush.
+     * <br>An {@link ICoalescing} event with the same key as a buffered event is merged into it instead.
+     * @param event The event to call.
+     * @return Whether the event will be, or was, called, including when merged. This is false when it was dropped.
+     * @see BoundedEventDispatcher#submit(IEvent)
+     */
+    public boolean add(IEvent event) {
+        Objects.requireNonNull(event, "event");
+        try {
+            EventQueue.Offer offer = this.queue.offer(event);
+            if(offer == EventQueue.Offer.CALLER_RUNS)
+                this.eventManager.call(event, this.exceptions);
+            return offer != EventQueue.Offer.DROPPED;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Call every event buffered before the flush started, in the order they were added.
+     * <br>Events added during the flush wait for the next flush.
+     * @return The number of events called.
+     */
+    public int flush() {
+        int count = this.queue.size();
+        int called = 0;
+        for(; called < count; called++) {
+            IEvent event = this.queue.poll();
+            if(Objects.isNull(event))
+                break;
+            try {
+                this.eventManager.call(event, this.exceptions);
+            } catch (Throwable throwable) {
+                // A failed call, such as from a rethrowing sink, must not leave the rest of the flush buffered.
+                fail(throwable);
+            }
+        }
+        return called;
+    }
+
+    private void fail(Throwable throwable) {
+        try {
+            this.exceptions.accept(null, throwable instanceof Exception exception ? exception : new InvocationTargetException(throwable));
+        } catch (Throwable ignored) {
+            // The sink itself failed, so there is nowhere left to report to.
+        }
+    }
+
+    /**
+     * @return The number of events buffered.
+     */
+    public int size() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return The number of buffered events replaced by, or merged with, a newer event.
+     */
+    public long getCoalesced() {
+        return this.queue.getReplaced();
+    }
+
+    /**
+     * @return The number of events dropped.
+     */
+    public long getDropped() {
+        return this.queue.getDropped();
+    }
+
+}
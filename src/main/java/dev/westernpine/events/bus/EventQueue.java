@@ -0,0 +1,253 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.ICoalescing;
+import dev.westernpine.events.event.IEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded FIFO queue of events, applying an {@link OverflowPolicy} when full.
+ * <br>
+ * <br>{@link ICoalescing} events are merged into a queued event of the same class and key, in place, whether or not the queue is full.
+ */
+final class EventQueue {
+
+    /**
+     * What happened to an offered event.
+     */
+    enum Offer {
+        QUEUED,
+        REPLACED,
+        DROPPED,
+        CALLER_RUNS
+    }
+
+    /**
+     * A queued event, which can be replaced in place until it is polled.
+     */
+    private static final class Pending {
+        private IEvent event;
+        private final Object key;
+
+        private Pending(IEvent event, Object key) {
+            this.event = event;
+            this.key = key;
+        }
+    }
+
+    private final int capacity;
+
+    private final OverflowPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = this.lock.newCondition();
+
+    private final Condition notEmpty = this.lock.newCondition();
+
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+
+    /**
+     * The most recently queued event of each coalescing key, or of each type when coalescing on overflow.
+     */
+    private final Map<Object, Pending> latest = new HashMap<>();
+
+    /**
+     * The key of an {@link ICoalescing} event, scoped to its class.
+     */
+    private record CoalescingKey(Class<?> type, Object key) {}
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder replaced = new LongAdder();
+
+    /**
+     * Whether a task is draining the queue, so only one drains it at a time.
+     */
+    final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Whether events are no longer accepted. Only written under the lock, so no event is queued once it is set.
+     */
+    private boolean closed;
+
+    EventQueue(int capacity, OverflowPolicy policy) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive: %d".formatted(capacity));
+
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * @param event The event to queue.
+     * @return What happened to the event.
+     * @throws InterruptedException When interrupted while blocked on a full queue.
+     * @throws IllegalStateException When the queue is closed.
+     */
+    Offer offer(IEvent event) throws InterruptedException {
+        boolean coalescing = event instanceof ICoalescing;
+        Object key = coalescing ? new CoalescingKey(event.getClass(), ((ICoalescing<?>) event).getCoalescingKey()) : event.getClass();
+
+        this.lock.lock();
+        try {
+            if(this.closed)
+                throw new IllegalStateException("The queue is closed.");
+
+            if(coalescing) {
+                Pending previous = this.latest.get(key);
+                if(!Objects.isNull(previous)) {
+                    previous.event = coalesce((ICoalescing<?>) event, previous.event);
+                    this.replaced.increment();
+                    return Offer.REPLACED;
+                }
+            }
+
+            if(this.pending.size() >= this.capacity) {
+                switch (this.policy) {
+                    case BLOCK -> {
+                        while(this.pending.size() >= this.capacity) {
+                            this.notFull.await();
+                            if(this.closed)
+                                throw new IllegalStateException("The queue is closed.");
+                        }
+                    }
+                    case DROP_NEWEST -> {
+                        this.dropped.increment();
+                        return Offer.DROPPED;
+                    }
+                    case DROP_OLDEST -> {
+                        unlink(this.pending.pollFirst());
+                        this.dropped.increment();
+                    }
+                    case CALLER_RUNS -> {
+                        return Offer.CALLER_RUNS;
+                    }
+                    case COALESCE -> {
+                        Pending previous = this.latest.get(key);
+                        if(Objects.isNull(previous)) {
+                            this.dropped.increment();
+                            return Offer.DROPPED;
+                        }
+                        previous.event = event;
+                        this.replaced.increment();
+                        return Offer.REPLACED;
+                    }
+                }
+            }
+
+            Pending pending = new Pending(event, key);
+            this.pending.addLast(pending);
+            if(coalescing || this.policy == OverflowPolicy.COALESCE)
+                this.latest.put(key, pending);
+            this.notEmpty.signal();
+            return Offer.QUEUED;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return The oldest queued event, or null if the queue is empty.
+     */
+    IEvent poll() {
+        this.lock.lock();
+        try {
+            Pending pending = this.pending.pollFirst();
+            if(Objects.isNull(pending))
+                return null;
+
+            unlink(pending);
+            this.notFull.signal();
+            return pending.event;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for the oldest queued event, until the queue is closed.
+     * @return The oldest queued event, or null once the queue is closed and every queued event was taken.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    IEvent take() throws InterruptedException {
+        this.lock.lock();
+        try {
+            while(this.pending.isEmpty()) {
+                if(this.closed)
+                    return null;
+                this.notEmpty.await();
+            }
+
+            Pending pending = this.pending.pollFirst();
+            unlink(pending);
+            this.notFull.signal();
+            return pending.event;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting events, and wake every thread waiting on the queue.
+     * <br>Events already queued can still be taken.
+     */
+    void close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Merge an event into a pending event with the same key.
+     * @throws NullPointerException When the event merges into null, leaving the pending event in place.
+     */
+    private static <E extends IEvent & ICoalescing<E>> IEvent coalesce(ICoalescing<E> event, IEvent pending) {
+        @SuppressWarnings("unchecked") // Keys are scoped to the event's class, so the pending event is an E as well.
+        E previous = (E) pending;
+        return Objects.requireNonNull(event.coalesce(previous), "Coalescing %s returned null.".formatted(event.getClass().getName()));
+    }
+
+    private void unlink(Pending pending) {
+        if(this.latest.get(pending.key) == pending)
+            this.latest.remove(pending.key);
+    }
+
+    int size() {
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    int getCapacity() {
+        return this.capacity;
+    }
+
+    OverflowPolicy getPolicy() {
+        return this.policy;
+    }
+
+    long getDropped() {
+        return this.dropped.sum();
+    }
+
+    long getReplaced() {
+        return this.replaced.sum();
+    }
+
+}
@@ -0,0 +1,12 @@
+package dev.westernpine.events.bus;
+
+/**
+ * A point-in-time view of a lane of a {@link PartitionedEventDispatcher}.
+ *
+ * @param lane The index of the lane.
+ * @param depth The number of events queued in the lane.
+ * @param processed The number of events the lane has called.
+ * @param dropped The number of events the lane's queue has dropped.
+ * @param utilization The fraction of time the lane has spent calling events since it started, from 0 to 1.
+ */
+public record LaneStats(int lane, int depth, long processed, long dropped, double utilization) {}
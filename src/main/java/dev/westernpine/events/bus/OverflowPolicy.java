@@ -0,0 +1,34 @@
+package dev.westernpine.events.bus;
+
+/**
+ * What a bounded queue does with an event submitted while it is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait for the queue to have room.
+     */
+    BLOCK,
+
+    /**
+     * Drop the submitted event.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drop the oldest queued event to make room for the submitted event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Call the submitted event on the submitting thread instead, slowing the producer to the rate of the handlers.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Replace the most recently queued event of the same type with the submitted event, or drop it if there is none.
+     * <br>{@link dev.westernpine.events.event.ICoalescing} events are always merged by their key instead, so they are dropped when the queue is full.
+     */
+    COALESCE
+
+}
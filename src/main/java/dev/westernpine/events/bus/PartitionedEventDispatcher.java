@@ -0,0 +1,228 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.event.IKeyed;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.IEventManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Calls events on a fixed number of lanes, each with a single thread and a bounded queue,
+ * <br>so events with the same routing key are called in order, while events with different keys are called in parallel.
+ * <br>
+ * <br>Events are routed by their key, which by default is the key of {@link IKeyed} events, or the class of any other event.
+ * <br>Each lane's queue applies its {@link OverflowPolicy} when full, although {@link OverflowPolicy#CALLER_RUNS} gives up the ordering of the overflowing events.
+ * <br>Lanes can also run as serial mailboxes on virtual threads, by supplying a virtual thread factory.
+ */
+public class PartitionedEventDispatcher implements AutoCloseable {
+
+    private final IEventManager eventManager;
+
+    private final BiConsumer<Handler, Exception> exceptions;
+
+    private final Function<IEvent, Object> router;
+
+    private final Lane[] lanes;
+
+    private final class Lane implements Runnable {
+        private final int index;
+        private final EventQueue queue;
+        private final Thread thread;
+        private final long started = System.nanoTime();
+
+        // Only written by the lane's thread.
+        private volatile long processed;
+        private volatile long busyNanos;
+
+        private Lane(int index, int capacity, OverflowPolicy policy, ThreadFactory threadFactory) {
+            this.index = index;
+            this.queue = new EventQueue(capacity, policy);
+            this.thread = threadFactory.newThread(this);
+        }
+
+        @Override
+        public void run() {
+            while(true) {
+                IEvent event;
+                try {
+                    event = this.queue.take();
+                } catch (InterruptedException exception) {
+                    continue; // Only closing the queue stops the lane, so no queued event is left behind.
+                }
+
+                if(Objects.isNull(event))
+                    return; // Closed, and every queued event was called.
+
+                long start = System.nanoTime();
+                try {
+                    eventManager.call(event, exceptions);
+                } catch (Throwable throwable) {
+                    // The lane must outlive a failed call, or every later event routed to it would never be called.
+                    try {
+                        exceptions.accept(null, throwable instanceof Exception exception ? exception : new InvocationTargetException(throwable));
+                    } catch (Throwable ignored) {
+                        // The sink itself failed, so there is nowhere left to report to.
+                    }
+                }
+                this.busyNanos += System.nanoTime() - start;
+                this.processed++;
+            }
+        }
+
+        private LaneStats stats() {
+            long elapsed = Math.max(1, System.nanoTime() - this.started);
+            return new LaneStats(this.index, this.queue.size(), this.processed, this.queue.getDropped(), Math.min(1D, (double) this.busyNanos / elapsed));
+        }
+    }
+
+    /**
+     * Creates a new partitioned event dispatcher, and starts its lanes.
+     * @param eventManager The event manager to call events through.
+     * @param lanes The number of lanes.
+     * @param capacity The capacity of each lane's queue.
+     * @param policy What to do with events submitted while a lane's queue is full.
+     * @param router Gets the routing key of an event. Events with equal keys are called in order.
+     * @param threadFactory Creates the thread of each lane.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception, on the lane's thread.
+     * <br>The handler is null when calling an event failed outside its handlers.
+     */
+    public PartitionedEventDispatcher(IEventManager eventManager, int lanes, int capacity, OverflowPolicy policy, Function<IEvent, Object> router, ThreadFactory threadFactory, BiConsumer<Handler, Exception> exceptions) {
+        if(lanes < 1)
+            throw new IllegalArgumentException("Lane count must be positive: %d".formatted(lanes));
+
+        this.eventManager = Objects.requireNonNull(eventManager, "eventManager");
+        this.router = Objects.requireNonNull(router, "router");
+        this.exceptions = Objects.requireNonNull(exceptions, "exceptions");
+        Objects.requireNonNull(threadFactory, "threadFactory");
+
+        this.lanes = new Lane[lanes];
+        for(int i = 0; i < lanes; i++)
+            this.lanes[i] = new Lane(i, capacity, policy, threadFactory);
+        for(Lane lane : this.lanes)
+            lane.thread.start();
+    }
+
+    /**
+     * Creates a new partitioned event dispatcher, and starts its lanes on daemon threads.
+     * <br>Events are routed by their {@link IKeyed} key, or their class, and handler exceptions are passed to the uncaught exception handler of the lane.
+     * @param eventManager The event manager to call events through.
+     * @param lanes The number of lanes.
+     * @param capacity The capacity of each lane's queue.
+     * @param policy What to do with events submitted while a lane's queue is full.
+     */
+    public PartitionedEventDispatcher(IEventManager eventManager, int lanes, int capacity, OverflowPolicy policy) {
+        this(eventManager, lanes, capacity, policy, PartitionedEventDispatcher::route,
+                Thread.ofPlatform().daemon().name("events-lane-", 0).factory(), PartitionedEventDispatcher::uncaughtException);
+    }
+
+    /**
+     * Queue an event on the lane of its routing key.
+     * @param event The event to call.
+     * @return Whether the event will be, or was, called, including when merged. This is false when it was dropped.
+     * @throws IllegalStateException When the dispatcher is closed.
+     * @see BoundedEventDispatcher#submit(IEvent)
+     */
+    public boolean submit(IEvent event) {
+        Objects.requireNonNull(event, "event");
+        EventQueue queue = this.lanes[getLane(event)].queue;
+        try {
+            EventQueue.Offer offer = queue.offer(event);
+            if(offer == EventQueue.Offer.CALLER_RUNS)
+                this.eventManager.call(event, this.exceptions);
+            return offer != EventQueue.Offer.DROPPED;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @param event The event to route.
+     * @return The index of the lane the event is called on.
+     */
+    public int getLane(IEvent event) {
+        Object key = this.router.apply(event);
+        int hash = Objects.isNull(key) ? 0 : key.hashCode();
+        hash ^= hash >>> 16; // Spread the high bits, as keys often only differ in them.
+        return Math.floorMod(hash, this.lanes.length);
+    }
+
+    /**
+     * @return The number of lanes.
+     */
+    public int getLanes() {
+        return this.lanes.length;
+    }
+
+    /**
+     * @return A point-in-time view of each lane, in lane order.
+     */
+    public List<LaneStats> getLaneStats() {
+        List<LaneStats> stats = new ArrayList<>(this.lanes.length);
+        for(Lane lane : this.lanes)
+            stats.add(lane.stats());
+        return stats;
+    }
+
+    /**
+     * @return The number of events queued across every lane.
+     */
+    public int getDepth() {
+        int depth = 0;
+        for(Lane lane : this.lanes)
+            depth += lane.queue.size();
+        return depth;
+    }
+
+    /**
+     * @return The number of events dropped across every lane.
+     */
+    public long getDropped() {
+        long dropped = 0;
+        for(Lane lane : this.lanes)
+            dropped += lane.queue.getDropped();
+        return dropped;
+    }
+
+    /**
+     * Stop accepting events, and wait for every lane to call the events already queued.
+     * <br>If interrupted while waiting, this keeps waiting, and the interrupt is kept.
+     */
+    @Override
+    public void close() {
+        // Closing each queue under its lock means every accepted event is queued before its lane sees it closed.
+        for(Lane lane : this.lanes)
+            lane.queue.close();
+
+        boolean interrupted = false;
+        for(Lane lane : this.lanes) {
+            while(true) {
+                try {
+                    lane.thread.join();
+                    break;
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        if(interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private static Object route(IEvent event) {
+        return event instanceof IKeyed keyed ? keyed.getKey() : event.getClass();
+    }
+
+    private static void uncaughtException(Handler handler, Exception exception) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+}
@@ -0,0 +1,320 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.IEventManager;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * A lock-free, multi-producer and single-consumer queue in front of an event manager.
+ * <br>
+ * <br>Events are published into a preallocated ring buffer, whose size is a power of two.
+ * <br>Producers claim a sequence with a single atomic increment, and mark their slot as published once the event is stored,
+ * <br>so publishing never allocates and never takes a lock.
+ * <br>
+ * <br>The consumer drains every published event in a batch, calling each through the event manager in the order they were claimed,
+ * <br>and only then releases the batch's slots to producers.
+ * <br>Events can be consumed on a thread started by {@link #start(ThreadFactory)}, or by calling {@link #drain(int)} from a single thread, such as a game loop.
+ * <br>
+ * <br>When the ring is full, producers wait for the consumer to release slots.
+ * <br>
+ * <br>Closing the bus closes the sequence itself, so every sequence is either claimed before the close, and published,
+ * <br>or refused. The consumer never waits on a sequence which will not be published.
+ */
+public class RingBufferEventBus implements AutoCloseable {
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Added to the claimed sequence when the bus closes, so a sequence claimed afterwards is recognized, and given back.
+     */
+    private static final long CLOSED = 1L << 62;
+
+    private final IEventManager eventManager;
+
+    private final BiConsumer<Handler, Exception> exceptions;
+
+    private final WaitStrategy waitStrategy;
+
+    private final IEvent[] slots;
+
+    /**
+     * The round each slot was last published in, so a slot is only consumed once the current round is published to it.
+     */
+    private final int[] published;
+
+    private final int mask;
+
+    private final int shift;
+
+    /**
+     * The last sequence claimed by a producer, plus {@link #CLOSED} once the bus is closed.
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * The last sequence released by the consumer.
+     */
+    private volatile long consumed = -1;
+
+    private volatile boolean closed;
+
+    private volatile Thread consumer;
+
+    /**
+     * Creates a new ring buffer event bus.
+     * @param eventManager The event manager to call events through.
+     * @param capacity The number of events the ring can hold. This must be a power of two.
+     * @param waitStrategy How the consumer thread waits for events.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception, on the consumer thread.
+     * <br>The handler is null when calling an event failed outside its handlers.
+     */
+    public RingBufferEventBus(IEventManager eventManager, int capacity, WaitStrategy waitStrategy, BiConsumer<Handler, Exception> exceptions) {
+        if(capacity < 1 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two: %d".formatted(capacity));
+
+        this.eventManager = Objects.requireNonNull(eventManager, "eventManager");
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+        this.exceptions = Objects.requireNonNull(exceptions, "exceptions");
+        this.slots = new IEvent[capacity];
+        this.published = new int[capacity];
+        Arrays.fill(this.published, -1);
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Creates a new ring buffer event bus, whose handler exceptions are passed to the uncaught exception handler of the consumer thread.
+     * @param eventManager The event manager to call events through.
+     * @param capacity The number of events the ring can hold. This must be a power of two.
+     * @param waitStrategy How the consumer thread waits for events.
+     */
+    public RingBufferEventBus(IEventManager eventManager, int capacity, WaitStrategy waitStrategy) {
+        this(eventManager, capacity, waitStrategy, RingBufferEventBus::uncaughtException);
+    }
+
+    /**
+     * Publish an event, waiting for a free slot if the ring is full.
+     * <br>This can be called from any number of threads.
+     * <br>An event whose sequence was claimed before the bus closed is still called, even if it waits for a slot while the bus closes.
+     * @param event The event to call on the consumer.
+     * @throws IllegalStateException When the bus is closed.
+     */
+    public void publish(IEvent event) {
+        Objects.requireNonNull(event, "event");
+        if(this.closed)
+            throw new IllegalStateException("The event bus is closed.");
+
+        long sequence = this.claimed.incrementAndGet();
+        if(sequence >= CLOSED) {
+            // Claimed after the close, so give the sequence back rather than leave a hole for the consumer to wait on.
+            this.claimed.decrementAndGet();
+            throw new IllegalStateException("The event bus is closed.");
+        }
+
+        // The consumer keeps running until every sequence claimed before the close is consumed, so this slot is always released.
+        long wrap = sequence - this.slots.length;
+        while(wrap > this.consumed)
+            LockSupport.parkNanos(1L);
+
+        store(sequence, event);
+    }
+
+    /**
+     * Publish an event, unless the ring is full.
+     * <br>This can be called from any number of threads.
+     * @param event The event to call on the consumer.
+     * @return Whether the event was published.
+     * @throws IllegalStateException When the bus is closed.
+     */
+    public boolean tryPublish(IEvent event) {
+        Objects.requireNonNull(event, "event");
+        if(this.closed)
+            throw new IllegalStateException("The event bus is closed.");
+
+        long sequence;
+        do {
+            long current = this.claimed.get();
+            if(current >= CLOSED)
+                throw new IllegalStateException("The event bus is closed.");
+            sequence = current + 1;
+            if(sequence - this.slots.length > this.consumed)
+                return false;
+            if(this.claimed.compareAndSet(current, sequence))
+                break;
+        } while(true);
+
+        store(sequence, event);
+        return true;
+    }
+
+    private void store(long sequence, IEvent event) {
+        int index = (int) sequence & this.mask;
+        this.slots[index] = event;
+        PUBLISHED.setRelease(this.published, index, (int) (sequence >>> this.shift));
+    }
+
+    private boolean isPublished(long sequence) {
+        return (int) PUBLISHED.getAcquire(this.published, (int) sequence & this.mask) == (int) (sequence >>> this.shift);
+    }
+
+    /**
+     * Call the published events, in the order their sequences were claimed.
+     * <br>This must only be called from one thread at a time, and not while a consumer thread is started.
+     * @param max The most events to call.
+     * @return The number of events called.
+     */
+    public int drain(int max) {
+        long next = this.consumed + 1;
+        long end = next;
+        while(end - next < max && isPublished(end))
+            end++;
+
+        long released = next - 1;
+        try {
+            for(long sequence = next; sequence < end; sequence++) {
+                int index = (int) sequence & this.mask;
+                IEvent event = this.slots[index];
+                this.slots[index] = null;
+                released = sequence;
+                try {
+                    this.eventManager.call(event, this.exceptions);
+                } catch (Throwable throwable) {
+                    // One failed call must not stop the rest of the batch, or end the consumer thread.
+                    fail(throwable);
+                }
+            }
+        } finally {
+            // The batch's slots are released at once, so producers only see one write per batch.
+            // Slots already taken are released even if the batch is cut short, so their events are never called twice.
+            if(released >= next)
+                this.consumed = released;
+        }
+        return (int) (end - next);
+    }
+
+    /**
+     * Start a thread which consumes events until the bus is closed.
+     * @param threadFactory Creates the consumer thread.
+     * @param batchSize The most events to call before releasing their slots.
+     * @throws IllegalStateException When a consumer is already started, or the bus is closed.
+     */
+    public synchronized void start(ThreadFactory threadFactory, int batchSize) {
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive: %d".formatted(batchSize));
+        if(this.closed)
+            throw new IllegalStateException("The event bus is closed.");
+        if(!Objects.isNull(this.consumer))
+            throw new IllegalStateException("The event bus is already consuming.");
+
+        this.consumer = threadFactory.newThread(() -> consume(batchSize));
+        this.consumer.start();
+    }
+
+    /**
+     * Start a thread which consumes events until the bus is closed, in batches of up to the ring's capacity.
+     * @param threadFactory Creates the consumer thread.
+     * @throws IllegalStateException When a consumer is already started, or the bus is closed.
+     */
+    public void start(ThreadFactory threadFactory) {
+        start(threadFactory, this.slots.length);
+    }
+
+    private void consume(int batchSize) {
+        int attempt = 0;
+        while(true) {
+            if(drain(batchSize) > 0) {
+                attempt = 0;
+            } else if(this.closed && this.consumed >= this.claimed.get() - CLOSED) {
+                return; // Every sequence claimed before the close was called.
+            } else {
+                this.waitStrategy.idle(attempt++);
+            }
+        }
+    }
+
+    /**
+     * @return The number of events claimed, but not yet consumed.
+     */
+    public int size() {
+        long claimed = this.claimed.get();
+        if(claimed >= CLOSED)
+            claimed -= CLOSED;
+        return (int) Math.max(0, claimed - this.consumed);
+    }
+
+    /**
+     * @return The number of events the ring can hold.
+     */
+    public int getCapacity() {
+        return this.slots.length;
+    }
+
+    /**
+     * @return Whether the bus is closed.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Stop accepting events, and wait for the consumer thread to call every event already claimed.
+     * <br>Producers racing the close either have their event called, or are refused with an exception.
+     * <br>Without a consumer thread, the remaining events can still be drained.
+     * <br>If interrupted while waiting, this keeps waiting, and the interrupt is kept.
+     */
+    @Override
+    public void close() {
+        Thread consumer;
+        synchronized (this) {
+            if(this.closed)
+                return;
+            // The sequence is closed first, so once the consumer sees the bus closed, no more sequences can be claimed.
+            this.claimed.addAndGet(CLOSED);
+            this.closed = true;
+            consumer = this.consumer;
+        }
+
+        if(Objects.isNull(consumer))
+            return;
+
+        joinUninterruptibly(consumer);
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while(true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if(interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void fail(Throwable throwable) {
+        try {
+            this.exceptions.accept(null, throwable instanceof Exception exception ? exception : new InvocationTargetException(throwable));
+        } catch (Throwable ignored) {
+            // The sink itself failed, so there is nowhere left to report to.
+        }
+    }
+
+    private static void uncaughtException(Handler handler, Exception exception) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+}
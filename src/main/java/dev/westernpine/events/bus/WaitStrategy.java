@@ -0,0 +1,59 @@
+package dev.westernpine.events.bus;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a consumer waits for events to be published, trading latency against CPU usage.
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Wait once, after finding nothing to consume.
+     * @param attempt How many times in a row nothing was found, starting at 0.
+     */
+    public void idle(int attempt);
+
+    /**
+     * Spins on the CPU, for the lowest latency at the cost of a fully used core.
+     * @return A busy-spin wait strategy.
+     */
+    public static WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    /**
+     * Spins briefly, then yields the CPU to other threads between checks.
+     * @return A yielding wait strategy.
+     */
+    public static WaitStrategy yielding() {
+        return attempt -> {
+            if(attempt < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        };
+    }
+
+    /**
+     * Spins briefly, then yields, then parks the thread between checks.
+     * @param nanos How long to park for, which bounds the latency once idle.
+     * @return A parking wait strategy.
+     */
+    public static WaitStrategy parking(long nanos) {
+        if(nanos <= 0)
+            throw new IllegalArgumentException("Park time must be positive: %d".formatted(nanos));
+
+        return attempt -> {
+            if(attempt < 100) {
+                Thread.onSpinWait();
+            } else if(attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(nanos);
+            }
+        };
+    }
+
+}
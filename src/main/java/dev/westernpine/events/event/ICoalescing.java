@@ -0,0 +1,32 @@
+package dev.westernpine.events.event;
+
+/**
+ * ICoalescing is intended to be utilized alongside {@code IEvent},
+ * to merge an event into a pending event of the same type and key, instead of queueing both.
+ * <br>
+ * <br>This only applies while events are queued, such as in a {@code BoundedEventDispatcher} or {@code CoalescingEventBuffer}.
+ * <br>The merged event keeps the position of the pending event, and is called as usual once flushed.
+ *
+ * @param <E> The event type itself.
+ */
+public interface ICoalescing<E extends IEvent & ICoalescing<E>> {
+    /**
+     * The key pending events are merged by, such as the id of the entity the event is about.
+     * <br>Keys are compared by their equals and hashCode, and only between events of the same class.
+     *
+     * @return The coalescing key.
+     */
+    public Object getCoalescingKey();
+
+    /**
+     * Merge this event into a pending event with the same key.
+     * <br>By default, the latest event wins.
+     *
+     * @param pending The pending event, which has not been called yet.
+     * @return The event to call in place of both.
+     */
+    @SuppressWarnings("unchecked")
+    public default E coalesce(E pending) {
+        return (E) this;
+    }
+}
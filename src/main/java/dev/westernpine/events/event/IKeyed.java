@@ -0,0 +1,17 @@
+package dev.westernpine.events.event;
+
+/**
+ * IKeyed is intended to be utilized alongside {@code IEvent},
+ * to only deliver the event to keyed handlers registered for its key, as well as all unkeyed handlers.
+ * <br>
+ * <br>Keys are compared by their equals and hashCode, like the keys of a map.
+ */
+public interface IKeyed {
+    /**
+     * The key the event is routed by, such as the id of the entity it is about.
+     * <br>This should not change while the event is being called.
+     *
+     * @return The routing key, or null to only deliver the event to unkeyed handlers.
+     */
+    public Object getKey();
+}
@@ -0,0 +1,10 @@
+package dev.westernpine.events.exception;
+
+import java.lang.reflect.Method;
+
+public class KeyedListenerRegistrationException extends IllegalArgumentException {
+
+    public KeyedListenerRegistrationException(Method method) {
+        super("Method %s was registered with a key, but does not listen for an IKeyed event.".formatted(method.getName()));
+    }
+}
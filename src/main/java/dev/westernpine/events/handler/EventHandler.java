@@ -13,4 +13,31 @@ public @interface EventHandler {
 
     boolean ignoreCancelled() default false;
 
+    /**
+     * Whether the handler is fire-and-forget.
+     * <br>Asynchronous handlers are handed to the event manager's executor after all other handlers for the event have completed.
+     * <br>They should not mutate or cancel the event, and their exceptions go to the event manager's exception handler instead of the call result.
+     */
+    boolean async() default false;
+
+    /**
+     * Whether the handler can run concurrently with the other parallel handlers of the same priority.
+     * <br>Parallel handlers registered one after another for an event are started together, and all complete before the next handler runs,
+     * <br>so the order between priorities is kept. Cancellation is only checked before they start.
+     * <br>They should only read the event, and must be thread-safe, as they run on the event manager's executor and the calling thread.
+     * <br>
+     * <br>The executor must be able to run tasks alongside the calling thread for the handlers to actually run concurrently.
+     * <br>The calling thread runs every handler the executor has not started, or has rejected, instead of waiting for it,
+     * <br>so a bounded or same-thread executor, or a call made from one of the executor's threads, only loses parallelism.
+     * <br>Parallel handlers which wait on each other need a free executor thread for every other handler of their segment.
+     */
+    boolean parallel() default false;
+
+    /**
+     * The time budget of each invocation of the handler, in microseconds, checked by the event manager's handler watchdog.
+     * <br>0 uses the watchdog's default budget.
+     * @see dev.westernpine.events.watchdog.HandlerWatchdog
+     */
+    long budgetMicros() default 0;
+
 }
@@ -2,6 +2,43 @@ package dev.westernpine.events.handler;
 
 import dev.westernpine.events.event.IEvent;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.Objects;
 
-public record Handler(Object instance, Method method, Priority priority, boolean ignoreCanceled, Class<? extends IEvent> event){}
\ No newline at end of file
+/**
+ * A registered event listener.
+ * <br>
+ * <br>Weakly registered handlers do not keep their instance alive, so their instance is null, and is held by the reference instead.
+ * <br>Their invoker resolves the instance itself, and does nothing once it has been collected.
+ *
+ * @param instance The instance the listener is invoked with, or null for static and weakly registered listeners.
+ * @param parallel Whether the listener can run concurrently with the other parallel listeners of its priority.
+ * @param reference The weakly held instance, or null for strongly registered listeners.
+ * @param key The key of the {@link dev.westernpine.events.event.IKeyed} events the listener receives, or null to receive every event.
+ */
+public record Handler(Object instance, Method method, Priority priority, boolean ignoreCanceled, boolean async, boolean parallel, Class<? extends IEvent> event, HandlerInvoker invoker, WeakReference<Object> reference, Object key){
+
+    /**
+     * @return Whether the instance is weakly held.
+     */
+    public boolean isWeak() {
+        return !Objects.isNull(this.reference);
+    }
+
+    /**
+     * @return Whether the listener only receives events for its key.
+     */
+    public boolean isKeyed() {
+        return !Objects.isNull(this.key);
+    }
+
+    /**
+     * @return The instance the listener is invoked with, whether strongly or weakly held.
+     * <br>This is null for static listeners, and for weakly registered listeners once their instance is collected.
+     */
+    public Object target() {
+        return Objects.isNull(this.reference) ? this.instance : this.reference.get();
+    }
+
+}
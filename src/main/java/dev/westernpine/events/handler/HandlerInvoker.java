@@ -0,0 +1,23 @@
+package dev.westernpine.events.handler;
+
+import dev.westernpine.events.event.IEvent;
+
+/**
+ * A direct invoker for an event listener method.
+ * <br>
+ * <br>Invokers are compiled once per listener method, and are shared by every instance registered with that method.
+ * <br>This avoids the reflection, argument boxing and exception wrapping of {@link java.lang.reflect.Method#invoke(Object, Object...)} on every call.
+ */
+@FunctionalInterface
+public interface HandlerInvoker {
+
+    /**
+     * Invoke the listener method with the event.
+     *
+     * @param instance The instance to invoke the listener with. Otherwise, null for static functions.
+     * @param event The event to pass to the listener.
+     * @throws Throwable Anything thrown by the listener itself, unwrapped.
+     */
+    public void invoke(Object instance, IEvent event) throws Throwable;
+
+}
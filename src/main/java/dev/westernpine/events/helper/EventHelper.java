@@ -4,6 +4,8 @@ import dev.westernpine.events.event.IEvent;
 import dev.westernpine.events.exception.ParameterListenerRegistrationException;
 import dev.westernpine.events.handler.EventHandler;
 import dev.westernpine.events.handler.HandlerReference;
+import dev.westernpine.events.registrar.ListenerDescriptor;
+import dev.westernpine.events.registrar.ListenerRegistrar;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
@@ -12,6 +14,106 @@ import java.util.*;
 
 public class EventHelper {
 
+    /**
+     * Generated registrars, looked up once per class.
+     */
+    private static final ClassValue<Optional<ListenerRegistrar>> REGISTRARS = new ClassValue<>() {
+        @Override
+        protected Optional<ListenerRegistrar> computeValue(Class<?> type) {
+            try {
+                Class<?> registrar = Class.forName(type.getName() + ListenerRegistrar.SUFFIX, true, type.getClassLoader());
+                if(!ListenerRegistrar.class.isAssignableFrom(registrar))
+                    return Optional.empty();
+                return Optional.of((ListenerRegistrar) registrar.getConstructor().newInstance());
+            } catch (ReflectiveOperationException | LinkageError exception) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    /**
+     * Listener methods, scanned once per class.
+     */
+    private static final ClassValue<List<ListenerMethod>> LISTENERS = new ClassValue<>() {
+        @Override
+        protected List<ListenerMethod> computeValue(Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    /**
+     * Get every valid listener method of a class, both static and non-static.
+     * <br>
+     * <br>Classes are only scanned the first time, or read from their generated registrar if they have one.
+     * @param clazz The class to get listener methods of.
+     * @return An unmodifiable list of the class's listener methods.
+     */
+    public static List<ListenerMethod> getListenerMethods(Class<?> clazz) {
+        return LISTENERS.get(clazz);
+    }
+
+    private static List<ListenerMethod> scan(Class<?> clazz) {
+        List<ListenerMethod> listeners = new ArrayList<>();
+
+        Optional<ListenerRegistrar> registrar = getRegistrar(clazz);
+        if(registrar.isPresent()) {
+            for(ListenerDescriptor descriptor : registrar.get().getListeners()) {
+                try {
+                    Method method = descriptor.declaringClass().getMethod(descriptor.method(), descriptor.event());
+                    listeners.add(new ListenerMethod(method, descriptor.event(), method.getAnnotation(EventHandler.class), descriptor.isStatic(), descriptor.invoker()));
+                } catch (NoSuchMethodException exception) {
+                    throw new IllegalStateException("Registrar for %s is out of date with its class.".formatted(clazz.getName()), exception);
+                }
+            }
+            return List.copyOf(listeners);
+        }
+
+        for(Method method : clazz.getMethods()) {
+            Optional<EventHandler> oHandler = getEventHandler(method);
+
+            if(oHandler.isEmpty())
+                continue;
+
+            if(!isPublic(method))
+                continue;
+
+            if(!isListeningForEvent(method))
+                continue;
+
+            Class<? extends IEvent> event = method.getParameterTypes()[0].asSubclass(IEvent.class);
+            listeners.add(new ListenerMethod(method, event, oHandler.get(), isStatic(method), InvokerFactory.getInvoker(method)));
+        }
+        return List.copyOf(listeners);
+    }
+
+    /**
+     * Get the registrar generated for a listener class by the Events annotation processor.
+     * @param clazz The listener class.
+     * @return An optional of the registrar, which is empty when the class was not processed.
+     */
+    public static Optional<ListenerRegistrar> getRegistrar(Class<?> clazz) {
+        return REGISTRARS.get(clazz);
+    }
+
+    /**
+     * Get the compile-time descriptor of a listener method, if its class has a generated registrar.
+     * @param method The listener method.
+     * @return An optional of the descriptor.
+     */
+    public static Optional<ListenerDescriptor> getDescriptor(Method method) {
+        Optional<ListenerRegistrar> registrar = getRegistrar(method.getDeclaringClass());
+        if(registrar.isEmpty())
+            return Optional.empty();
+
+        for(ListenerDescriptor descriptor : registrar.get().getListeners()) {
+            if(descriptor.declaringClass() == method.getDeclaringClass()
+                    && descriptor.method().equals(method.getName())
+                    && descriptor.event() == method.getParameterTypes()[0])
+                return Optional.of(descriptor);
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the {@link EventHandler} Annotation for and event listener.
      * @param method The method to get the {@link EventHandler} for.
@@ -53,6 +155,7 @@ public class EventHelper {
      * <br>Providing an instance will automatically override the clazz provided.
      * <br>
      * <br>This function does all the pre-validation checks for identifying proper event listeners.
+     * <br>Classes are only scanned once, and when the class has a registrar generated by the Events annotation processor, it is used instead of scanning the class.
      *
      * @param clazz A class type to find static methods in.
      * @param instance An instance to find methods in.
@@ -65,22 +168,11 @@ public class EventHelper {
             throw new NullPointerException("Both clazz and instance cannot be null!");
 
         LinkedList<HandlerReference> references = new LinkedList<>();
-        for(Method method : clazz.getMethods()) {
-            Optional<EventHandler> oHandler = getEventHandler(method);
-
-            if(oHandler.isEmpty())
-                continue;
-
-            if(!isPublic(method))
-                continue;
-
-            if(!isListeningForEvent(method))
-                continue;
-
-            if(Objects.isNull(instance) && !isStatic(method))
+        for(ListenerMethod listener : getListenerMethods(clazz)) {
+            if(Objects.isNull(instance) && !listener.isStatic())
                 continue;
 
-            references.add(new HandlerReference(isStatic(method) ? null : instance, method));
+            references.add(new HandlerReference(listener.isStatic() ? null : instance, listener.method()));
         }
 
         return references;
@@ -0,0 +1,115 @@
+package dev.westernpine.events.helper;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.HandlerInvoker;
+import dev.westernpine.events.registrar.ListenerDescriptor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InvokerFactory {
+
+    /**
+     * Invokers are cached per declaring class, so they are released alongside the class when it is unloaded.
+     */
+    private static final ClassValue<Map<Method, HandlerInvoker>> INVOKERS = new ClassValue<>() {
+        @Override
+        protected Map<Method, HandlerInvoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final MethodType INSTANCE_INVOKER = MethodType.methodType(void.class, Object.class, IEvent.class);
+
+    private static final MethodType STATIC_INVOKER = MethodType.methodType(void.class, IEvent.class);
+
+    /**
+     * The functional shape used for static listeners, as they do not accept an instance.
+     * <br>This must be public, as generated invokers are defined alongside the listener class.
+     */
+    @FunctionalInterface
+    public interface StaticInvoker {
+        public void invoke(IEvent event) throws Throwable;
+    }
+
+    /**
+     * Get the invoker for a listener method, compiling it on first use.
+     * <br>
+     * <br>Invokers are created with the fastest strategy available for the method:
+     * <br>- 1. The direct invoker of a registrar generated at compile time, when the listener class has one.
+     * <br>- 2. A {@link LambdaMetafactory} generated class, which runs at the cost of a direct call.
+     * <br>- 3. A type-adapted {@link MethodHandle}, when the listener class cannot be accessed privately (E.g. another module).
+     * <br>- 4. Reflection, when all else fails.
+     *
+     * @param method The listener method. This should already be validated as a listener.
+     * @return A shared invoker for the method.
+     */
+    public static HandlerInvoker getInvoker(Method method) {
+        return INVOKERS.get(method.getDeclaringClass()).computeIfAbsent(method, InvokerFactory::create);
+    }
+
+    private static HandlerInvoker create(Method method) {
+        Optional<ListenerDescriptor> descriptor = EventHelper.getDescriptor(method);
+        if(descriptor.isPresent())
+            return descriptor.get().invoker();
+
+        try {
+            return metafactory(method);
+        } catch (Throwable ignored) {
+            // Fall through to the next strategy.
+        }
+
+        try {
+            return methodHandle(method);
+        } catch (Throwable ignored) {
+            // Fall through to the next strategy.
+        }
+
+        return reflection(method);
+    }
+
+    private static HandlerInvoker metafactory(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+        MethodType instantiated = target.type().changeReturnType(void.class); // Any returned value is discarded.
+
+        if(EventHelper.isStatic(method)) {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(StaticInvoker.class), STATIC_INVOKER, target, instantiated);
+            StaticInvoker invoker = (StaticInvoker) site.getTarget().invoke();
+            return (instance, event) -> invoker.invoke(event);
+        }
+
+        CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(HandlerInvoker.class), INSTANCE_INVOKER, target, instantiated);
+        return (HandlerInvoker) site.getTarget().invoke();
+    }
+
+    private static HandlerInvoker methodHandle(Method method) throws Throwable {
+        method.setAccessible(true);
+        MethodHandle target = MethodHandles.lookup().unreflect(method);
+
+        if(EventHelper.isStatic(method))
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+
+        MethodHandle handle = target.asType(INSTANCE_INVOKER);
+        return (instance, event) -> handle.invokeExact(instance, event);
+    }
+
+    private static HandlerInvoker reflection(Method method) {
+        return (instance, event) -> {
+            try {
+                method.invoke(instance, event);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        };
+    }
+
+}
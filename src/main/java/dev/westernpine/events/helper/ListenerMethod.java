@@ -0,0 +1,18 @@
+package dev.westernpine.events.helper;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.HandlerInvoker;
+
+import java.lang.reflect.Method;
+
+/**
+ * A validated listener method of a class, cached by {@link EventHelper#getListenerMethods(Class)}.
+ *
+ * @param method The listener method.
+ * @param event The event type the method listens for.
+ * @param eventHandler The {@link EventHandler} annotation of the method.
+ * @param isStatic Whether the method is static.
+ * @param invoker The shared invoker for the method.
+ */
+public record ListenerMethod(Method method, Class<? extends IEvent> event, EventHandler eventHandler, boolean isStatic, HandlerInvoker invoker) {}
@@ -0,0 +1,36 @@
+package dev.westernpine.events.journal;
+
+import dev.westernpine.events.event.IEvent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes events to and from an {@link EventJournal}.
+ * <br>
+ * <br>Codecs write into a buffer kept by each recording thread, which the journal copies into its memory-mapped segment,
+ * <br>so recording does not need to allocate once the buffer has grown to fit the events.
+ * <br>A codec is usually one switch over the event types an application journals, writing a type tag followed by the fields.
+ */
+public interface EventCodec {
+
+    /**
+     * Write an event to the buffer, from its position onwards.
+     * <br>Running out of space is reported by the buffer's {@link java.nio.BufferOverflowException},
+     * <br>after which the journal encodes the event again into a larger buffer, up to the size of a segment.
+     * <br>Nothing is journaled for an event the codec throws on, or leaves out, even if it wrote part of it.
+     *
+     * @param event The event to write.
+     * @param buffer The buffer to write to.
+     * @return Whether the event was written. Otherwise, the event is left out of the journal.
+     */
+    public boolean encode(IEvent event, ByteBuffer buffer);
+
+    /**
+     * Read an event written by {@link #encode(IEvent, ByteBuffer)}.
+     *
+     * @param buffer The buffer to read from, holding exactly the bytes written for the event.
+     * @return The event.
+     */
+    public IEvent decode(ByteBuffer buffer);
+
+}
@@ -0,0 +1,378 @@
+package dev.westernpine.events.journal;
+
+import dev.westernpine.events.event.IEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Records events to a directory of memory-mapped, fixed-size segment files, to be replayed later by a {@link JournalReplayer}.
+ * <br>
+ * <br>Each event is written as its length, a timestamp in nanoseconds since the epoch, and the bytes of the {@link EventCodec}.
+ * <br>Events are encoded into a pooled buffer, and copied into the mapped segment,
+ * <br>so recording is a memory copy rather than a write syscall, and the operating system writes the pages back in the background.
+ * <br>
+ * <br>Recording is thread-safe and lock-free. Each record claims its space in the segment with a single atomic update,
+ * <br>and its length is written last, so a record is never read before it is complete.
+ * <br>The next segment is created and mapped in the background, so a full segment is swapped for it without waiting on the file system.
+ * <br>Full segments are written back in the background too, and are no longer referenced by the journal once swapped out.
+ * <br>
+ * <br>Events are journaled in the order they claim their space.
+ * <br>Segments are numbered, and a journal opened on an existing directory continues after its last segment.
+ */
+public class EventJournal implements AutoCloseable {
+
+    /**
+     * Creates and maps the next segment ahead of time, and writes back full segments, on a new virtual thread for each task.
+     */
+    private static final Executor PREALLOCATOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("events-journal-", 0).factory());
+
+    static final int MAGIC = 0x45564A31; // "EVJ1"
+
+    static final int SEGMENT_HEADER = Integer.BYTES;
+
+    static final int RECORD_HEADER = Integer.BYTES + Long.BYTES;
+
+    static final String SUFFIX = ".journal";
+
+    /**
+     * The initial size of each encoding buffer, which grows up to the largest event a segment can hold.
+     */
+    private static final int INITIAL_ENCODING = 256;
+
+    /**
+     * The most encoding buffers kept for reuse, as about as many threads can encode at once.
+     */
+    private static final int POOLED_ENCODINGS = Runtime.getRuntime().availableProcessors();
+
+    private final Path directory;
+
+    private final EventCodec codec;
+
+    private final int segmentSize;
+
+    /**
+     * Timestamps are taken from the monotonic clock, anchored to the wall clock once when the journal is opened.
+     */
+    private final long originEpochNanos;
+
+    private final long originNanos;
+
+    /**
+     * Encoding buffers, which are only held while an event is encoded and copied, so they are reused across threads.
+     * <br>Buffers are taken and returned by swapping a slot, so the pool never blocks. A thread finding it empty allocates a buffer of its own.
+     */
+    private final AtomicReferenceArray<ByteBuffer> encodings = new AtomicReferenceArray<>(POOLED_ENCODINGS);
+
+    /**
+     * Guards swapping in the next segment, and closing. Recording only takes it when its segment is full.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The segment being recorded to, or null once closed.
+     */
+    private volatile Segment segment;
+
+    private final LongAdder recorded = new LongAdder();
+
+    private static final class Segment {
+        private final Path path;
+        private final long index;
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The position the next record is written at. Records only ever use absolute puts, so the buffer's own position is never moved.
+         */
+        private final AtomicInteger position = new AtomicInteger(SEGMENT_HEADER);
+
+        /**
+         * The segment swapped in once this one is full. Set under the lock, before this segment is recorded to.
+         */
+        private volatile CompletableFuture<Segment> next;
+
+        private Segment(Path path, long index, MappedByteBuffer buffer) {
+            this.path = path;
+            this.index = index;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Claim space for a record.
+         * @return The position of the record, or -1 if it does not fit in the rest of the segment.
+         */
+        private int claim(int length) {
+            while(true) {
+                int start = this.position.get();
+                if(length > this.buffer.capacity() - start)
+                    return -1;
+                if(this.position.compareAndSet(start, start + length))
+                    return start;
+            }
+        }
+    }
+
+    /**
+     * Opens a journal, creating the directory if needed.
+     * @param directory The directory to write segments to.
+     * @param codec Serializes the events.
+     * @param segmentSize The size of each segment file, in bytes. Every event must fit in a single segment.
+     * @throws IOException When the first segment could not be created.
+     */
+    public EventJournal(Path directory, EventCodec codec, int segmentSize) throws IOException {
+        if(segmentSize <= SEGMENT_HEADER + RECORD_HEADER)
+            throw new IllegalArgumentException("Segment size is too small: %d".formatted(segmentSize));
+
+        this.directory = Files.createDirectories(directory);
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.segmentSize = segmentSize;
+
+        Instant now = Instant.now();
+        this.originEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.originNanos = System.nanoTime();
+
+        List<Path> segments = segments(directory);
+        long index = segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1)) + 1;
+        Segment segment = map(index);
+        segment.next = preallocate(index + 1);
+        this.segment = segment;
+    }
+
+    /**
+     * Append an event to the journal.
+     * <br>
+     * <br>The event is encoded before any space is claimed for it, so a codec which fails or leaves the event out
+     * <br>never leaves a partial record in the segment.
+     * <br>Events recorded while the journal is closing may not be flushed with it.
+     * @param event The event to record.
+     * @return Whether the event was recorded. Otherwise, the codec left it out of the journal.
+     * @throws IllegalArgumentException When the event does not fit in a segment.
+     * @throws IllegalStateException When the journal is closed.
+     * @throws UncheckedIOException When a new segment could not be created.
+     */
+    public boolean record(IEvent event) {
+        if(Objects.isNull(this.segment))
+            throw new IllegalStateException("Journal is closed.");
+
+        long timestamp = this.originEpochNanos + (System.nanoTime() - this.originNanos);
+        ByteBuffer encoded = takeEncoding();
+        try {
+            int max = this.segmentSize - SEGMENT_HEADER - RECORD_HEADER;
+            while(true) {
+                encoded.clear();
+                try {
+                    if(!this.codec.encode(event, encoded))
+                        return false;
+                    break;
+                } catch (BufferOverflowException exception) {
+                    if(encoded.capacity() >= max)
+                        throw new IllegalArgumentException("Event %s does not fit in a segment of %d bytes.".formatted(event.getClass().getName(), this.segmentSize));
+
+                    encoded = ByteBuffer.allocate((int) Math.min(max, encoded.capacity() * 2L));
+                }
+            }
+
+            int payload = encoded.position();
+            int length = RECORD_HEADER + payload;
+            while(true) {
+                Segment segment = this.segment;
+                if(Objects.isNull(segment))
+                    throw new IllegalStateException("Journal is closed.");
+
+                int start = segment.claim(length);
+                if(start < 0) {
+                    roll(segment);
+                    continue;
+                }
+
+                // A claimed record is marked as incomplete first, so a crash while copying it leaves a record the replayer can skip.
+                MappedByteBuffer buffer = segment.buffer;
+                buffer.putInt(start, -length);
+                buffer.putLong(start + Integer.BYTES, timestamp);
+                buffer.put(start + RECORD_HEADER, encoded, 0, payload);
+                buffer.putInt(start, length);
+                this.recorded.increment();
+                return true;
+            }
+        } finally {
+            returnEncoding(encoded);
+        }
+    }
+
+    /**
+     * @return A pooled encoding buffer, or a new one if the pool is empty.
+     */
+    private ByteBuffer takeEncoding() {
+        int first = (int) (Thread.currentThread().threadId() % POOLED_ENCODINGS);
+        for(int i = 0; i < POOLED_ENCODINGS; i++) {
+            int slot = (first + i) % POOLED_ENCODINGS;
+            if(Objects.isNull(this.encodings.get(slot)))
+                continue;
+
+            ByteBuffer encoded = this.encodings.getAndSet(slot, null);
+            if(!Objects.isNull(encoded))
+                return encoded;
+        }
+        return ByteBuffer.allocate(Math.min(INITIAL_ENCODING, this.segmentSize - SEGMENT_HEADER - RECORD_HEADER));
+    }
+
+    /**
+     * Return an encoding buffer to the pool, unless it is full, in which case the buffer is left to be collected.
+     */
+    private void returnEncoding(ByteBuffer encoded) {
+        int first = (int) (Thread.currentThread().threadId() % POOLED_ENCODINGS);
+        for(int i = 0; i < POOLED_ENCODINGS; i++) {
+            if(this.encodings.compareAndSet((first + i) % POOLED_ENCODINGS, null, encoded))
+                return;
+        }
+    }
+
+    /**
+     * Swap a full segment for its preallocated next segment, and start preallocating the one after it.
+     * <br>The next segment is waited on without holding the lock, and is normally mapped long before the segment is full.
+     * <br>Only the first thread to swap the segment wins. Others return, and claim space in the new segment.
+     */
+    private void roll(Segment full) {
+        CompletableFuture<Segment> next = full.next;
+        Segment segment;
+        try {
+            segment = next.join();
+        } catch (CompletionException exception) {
+            synchronized (this.lock) {
+                // Try to create the segment again on the next roll, unless another thread already did.
+                if(full.next == next)
+                    full.next = preallocate(full.index + 1);
+            }
+            throw exception.getCause() instanceof IOException cause ? new UncheckedIOException(cause) : exception;
+        }
+
+        synchronized (this.lock) {
+            if(this.segment != full)
+                return;
+
+            segment.next = preallocate(segment.index + 1);
+            this.segment = segment;
+        }
+
+        // Records still being copied into the full segment hold it until they finish, and nothing holds it after,
+        // so its mapping is released once collected. Writing it back now leaves no dirty pages behind.
+        PREALLOCATOR.execute(() -> {
+            try {
+                full.buffer.force();
+            } catch (UncheckedIOException ignored) {
+                // The operating system still writes the pages back by itself.
+            }
+        });
+    }
+
+    private CompletableFuture<Segment> preallocate(long index) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return map(index);
+            } catch (IOException exception) {
+                throw new CompletionException(exception);
+            }
+        }, PREALLOCATOR);
+    }
+
+    private Segment map(long index) throws IOException {
+        Path path = this.directory.resolve("%016d%s".formatted(index, SUFFIX));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize);
+        }
+        buffer.putInt(0, MAGIC);
+        return new Segment(path, index, buffer);
+    }
+
+    /**
+     * Write the recorded events back to the segment files, waiting until they are on the storage device.
+     * <br>This is not needed for the events to be replayed, unless the machine crashes, as the operating system writes them back by itself.
+     */
+    public void flush() {
+        Segment segment = this.segment;
+        if(!Objects.isNull(segment))
+            segment.buffer.force();
+    }
+
+    /**
+     * Flush and close the journal. Closing a closed journal does nothing.
+     * <br>The preallocated next segment is deleted, as it holds no events.
+     */
+    @Override
+    public void close() {
+        CompletableFuture<Segment> next;
+        synchronized (this.lock) {
+            Segment segment = this.segment;
+            if(Objects.isNull(segment))
+                return;
+
+            this.segment = null;
+            segment.buffer.force();
+            next = segment.next;
+        }
+
+        try {
+            Files.deleteIfExists(next.join().path);
+        } catch (CompletionException | IOException ignored) {
+            // An empty segment is replayed as no events.
+        }
+    }
+
+    /**
+     * @return The number of events recorded.
+     */
+    public long getRecorded() {
+        return this.recorded.sum();
+    }
+
+    /**
+     * @return The directory the segments are written to.
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return The segment files of a journal directory, in the order they were written.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if(!Files.isDirectory(directory))
+            return List.of();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList());
+            segments.sort((a, b) -> Long.compare(index(a), index(b)));
+            return segments;
+        }
+    }
+
+    private static long index(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException exception) {
+            throw new IllegalStateException("Segment %s is not named by its index.".formatted(segment), exception);
+        }
+    }
+
+}
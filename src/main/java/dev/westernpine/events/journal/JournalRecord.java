@@ -0,0 +1,11 @@
+package dev.westernpine.events.journal;
+
+import dev.westernpine.events.event.IEvent;
+
+/**
+ * An event read back from an {@link EventJournal}.
+ *
+ * @param timestamp When the event was recorded, in nanoseconds since the epoch.
+ * @param event The event.
+ */
+public record JournalRecord(long timestamp, IEvent event) {}
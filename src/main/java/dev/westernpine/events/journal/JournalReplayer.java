@@ -0,0 +1,143 @@
+package dev.westernpine.events.journal;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.IEventManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Reads the events recorded by an {@link EventJournal}, and calls them on an event manager.
+ * <br>
+ * <br>Segments are mapped and streamed one at a time, in the order they were written, so journals larger than memory can be replayed.
+ * <br>Events can be replayed in real time, keeping the gaps between them as they were recorded, or as fast as possible.
+ * <br>Replaying into an event manager which is itself journaling records the events again.
+ */
+public class JournalReplayer {
+
+    private final Path directory;
+
+    private final EventCodec codec;
+
+    /**
+     * Creates a new journal replayer.
+     * @param directory The directory of the journal's segments.
+     * @param codec Deserializes the events, matching the codec they were recorded with.
+     */
+    public JournalReplayer(Path directory, EventCodec codec) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.codec = Objects.requireNonNull(codec, "codec");
+    }
+
+    /**
+     * Read every recorded event, in the order they were recorded.
+     * @param consumer Accepts each event and its timestamp.
+     * @return The number of events read.
+     * @throws IOException When a segment could not be read.
+     */
+    public long read(Consumer<JournalRecord> consumer) throws IOException {
+        long count = 0;
+        for(Path segment : EventJournal.segments(this.directory)) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            if(buffer.remaining() < EventJournal.SEGMENT_HEADER || buffer.getInt(0) != EventJournal.MAGIC)
+                throw new IllegalStateException("Segment %s is not an event journal.".formatted(segment));
+
+            int position = EventJournal.SEGMENT_HEADER;
+            while(buffer.limit() - position >= EventJournal.RECORD_HEADER) {
+                int length = buffer.getInt(position);
+                if(length < 0 && -length >= EventJournal.RECORD_HEADER && -length <= buffer.limit() - position) {
+                    position -= length; // A record which was still being copied when the journal stopped.
+                    continue;
+                }
+                if(length < EventJournal.RECORD_HEADER || length > buffer.limit() - position)
+                    break; // The end of the segment.
+
+                long timestamp = buffer.getLong(position + Integer.BYTES);
+                ByteBuffer payload = buffer.slice(position + EventJournal.RECORD_HEADER, length - EventJournal.RECORD_HEADER);
+                consumer.accept(new JournalRecord(timestamp, this.codec.decode(payload)));
+                position += length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Call every recorded event on an event manager, one by one.
+     * @param manager The event manager to call the events on.
+     * @param realTime Whether to wait between events as long as between their recordings, instead of calling them as fast as possible.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     * @return The number of events replayed.
+     * @throws IOException When a segment could not be read.
+     */
+    public long replay(IEventManager manager, boolean realTime, BiConsumer<Handler, Exception> exceptions) throws IOException {
+        long[] origin = new long[2]; // The first timestamp, and when it was replayed.
+        boolean[] started = new boolean[1];
+        return read(record -> {
+            if(realTime) {
+                if(!started[0]) {
+                    origin[0] = record.timestamp();
+                    origin[1] = System.nanoTime();
+                    started[0] = true;
+                } else {
+                    awaitNanos(origin[1] + (record.timestamp() - origin[0]));
+                }
+            }
+            manager.call(record.event(), exceptions);
+        });
+    }
+
+    /**
+     * Call every recorded event on an event manager, in batches, as fast as possible.
+     * @param manager The event manager to call the events on.
+     * @param batchSize The number of events to call at once.
+     * @param handlerMajor Whether to run each handler over a batch, instead of each event through the handlers.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     * @return The number of events replayed.
+     * @throws IOException When a segment could not be read.
+     * @see IEventManager#callAll(java.util.Collection, boolean)
+     */
+    public long replayAll(IEventManager manager, int batchSize, boolean handlerMajor, BiConsumer<Handler, Exception> exceptions) throws IOException {
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive: %d".formatted(batchSize));
+
+        List<IEvent> batch = new ArrayList<>(batchSize);
+        long count = read(record -> {
+            batch.add(record.event());
+            if(batch.size() == batchSize) {
+                callAll(manager, batch, handlerMajor, exceptions);
+                batch.clear();
+            }
+        });
+
+        if(!batch.isEmpty())
+            callAll(manager, batch, handlerMajor, exceptions);
+        return count;
+    }
+
+    private static void callAll(IEventManager manager, List<IEvent> batch, boolean handlerMajor, BiConsumer<Handler, Exception> exceptions) {
+        manager.callAll(batch, handlerMajor).values().forEach(eventExceptions -> eventExceptions.forEach(exceptions));
+    }
+
+    private static void awaitNanos(long deadline) {
+        long remaining;
+        while((remaining = deadline - System.nanoTime()) > 0)
+            LockSupport.parkNanos(remaining);
+    }
+
+}
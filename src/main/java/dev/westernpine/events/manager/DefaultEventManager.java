@@ -1,29 +1,101 @@
 package dev.westernpine.events.manager;
 
 import dev.westernpine.events.event.ICancellable;
+import dev.westernpine.events.event.IKeyed;
 import dev.westernpine.events.exception.*;
 import dev.westernpine.events.handler.EventHandler;
 import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.handler.HandlerInvoker;
 import dev.westernpine.events.event.IEvent;
 import dev.westernpine.events.handler.Priority;
 import dev.westernpine.events.helper.EventHelper;
+import dev.westernpine.events.helper.InvokerFactory;
+import dev.westernpine.events.helper.ListenerMethod;
+import dev.westernpine.events.journal.EventJournal;
+import dev.westernpine.events.metrics.DispatchMetrics;
+import dev.westernpine.events.watchdog.BreakerAction;
+import dev.westernpine.events.watchdog.HandlerWatchdog;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class DefaultEventManager implements IEventManager {
 
-    private final HashMap<Class<? extends IEvent>, LinkedList<Handler>> listeners = new HashMap<>();
+    /**
+     * The default executor for asynchronous calls, which starts a new virtual thread for each call.
+     */
+    private static final Executor VIRTUAL_EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("events-", 0).factory());
+
+    /**
+     * Guards registry updates, so concurrent registrations are not lost.
+     * <br>Calls never take this lock.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The currently published handlers.
+     * <br>Calls read this once and dispatch over that snapshot, even if handlers are (un)registered meanwhile.
+     */
+    private volatile HandlerRegistry registry = HandlerRegistry.empty();
+
+    private final boolean stopExecutionOnException;
 
-    private boolean stopExecutionOnException;
+    private final Executor executor;
+
+    /**
+     * Receives exceptions from asynchronous handlers, as there is no call result to report them in.
+     */
+    private volatile BiConsumer<Handler, Exception> exceptionHandler = DefaultEventManager::uncaughtException;
+
+    /**
+     * Where dispatch metrics are recorded, or null when disabled.
+     */
+    private volatile DispatchMetrics metrics;
+
+    /**
+     * Times handlers against their budgets and trips misbehaving ones, or null when disabled.
+     */
+    private volatile HandlerWatchdog watchdog;
+
+    /**
+     * Where called events are recorded, or null when disabled.
+     */
+    private volatile EventJournal journal;
 
     /**
      * Creates a new Default Event Manager.
+     * <br>
+     * <br>The event manager is thread-safe. Listeners can be (un)registered from any thread,
+     * <br>including while events are being called, and calls never block on registrations.
+     * <br>
+     * <br>Asynchronous calls are dispatched on virtual threads.
      * @param stopExecutionOnException Determines whether to continue executing handlers for an event if there is an exception.
      */
     public DefaultEventManager(boolean stopExecutionOnException) {
+        this(stopExecutionOnException, VIRTUAL_EXECUTOR);
+    }
+
+    /**
+     * Creates a new Default Event Manager.
+     * <br>
+     * <br>The event manager is thread-safe. Listeners can be (un)registered from any thread,
+     * <br>including while events are being called, and calls never block on registrations.
+     * @param stopExecutionOnException Determines whether to continue executing handlers for an event if there is an exception.
+     * @param executor The executor to dispatch asynchronous calls on.
+     */
+    public DefaultEventManager(boolean stopExecutionOnException, Executor executor) {
         this.stopExecutionOnException = stopExecutionOnException;
+        this.executor = Objects.requireNonNull(executor, "executor");
     }
 
     /**
@@ -47,6 +119,48 @@ public class DefaultEventManager implements IEventManager {
      */
     @Override
     public Handler registerListener(Object instance, Method method) {
+        return registerListener(instance, method, false);
+    }
+
+    /**
+     * Register a listener for an event, optionally holding its instance weakly.
+     * <br>
+     * <br>A weakly registered listener does not keep its instance alive.
+     * <br>Once the instance is collected, the listener is never invoked again, and is unregistered in the background.
+     * <br>Only weakly registered listeners pay for checking whether their instance is still alive.
+     *
+     * @param instance The instance of the class to invoke the listener with. Otherwise, null for static functions.
+     * @param method   The method of the class or class instance to invoke when the event is called.
+     * @param weak     Whether to hold the instance weakly. This is ignored for static functions.
+     * @see #registerListener(Object, Method)
+     */
+    @Override
+    public Handler registerListener(Object instance, Method method, boolean weak) {
+        return registerListener(instance, method, weak, null, null);
+    }
+
+    /**
+     * Register a listener for an event, which only receives {@link IKeyed} events with an equal key.
+     * <br>
+     * <br>Keyed handlers are indexed by their key, so an event is only dispatched to the handlers for its key,
+     * <br>merged with every unkeyed handler in the usual order.
+     * <br>Events with a null key are never delivered to keyed handlers.
+     * <br>The method must listen for an {@link IKeyed} event, or a {@link KeyedListenerRegistrationException} is thrown.
+     *
+     * @param instance The instance of the class to invoke the listener with. Otherwise, null for static functions.
+     * @param method   The method of the class or class instance to invoke when the event is called.
+     * @param key      The key of the events to receive.
+     * @see #registerListener(Object, Method)
+     */
+    @Override
+    public Handler registerKeyed(Object instance, Method method, Object key) {
+        return registerListener(instance, method, false, Objects.requireNonNull(key, "key"), null);
+    }
+
+    /**
+     * @param scope The scope registering the listener, which forgets it once its instance is collected, or null.
+     */
+    Handler registerListener(Object instance, Method method, boolean weak, Object key, EventScope scope) {
 
         // Some checks before registering.
         Optional<EventHandler> oHandler = EventHelper.getEventHandler(method);
@@ -68,47 +182,235 @@ public class DefaultEventManager implements IEventManager {
             throw new ParameterListenerRegistrationException(method);
 
         Class<? extends IEvent> clazz = (Class<? extends IEvent>) method.getParameters()[0].getType();
+        if(!Objects.isNull(key) && !IKeyed.class.isAssignableFrom(clazz))
+            throw new KeyedListenerRegistrationException(method);
 
-        Priority priority = oHandler.get().priority();
+        WeakListener reference = weak && !Objects.isNull(instance) ? new WeakListener(instance, this, scope) : null;
+        Handler handler = createHandler(instance, method, oHandler.get(), clazz, InvokerFactory.getInvoker(method), reference, key);
+
+        // If we add the listener in the proper order,
+        // then we won't need to sort when we call the listener.
+        synchronized (this.lock) {
+            this.registry = this.registry.register(handler);
+            track(List.of(handler));
+        }
+
+        return handler;
+    }
+
+    private static Handler createHandler(Object instance, Method method, EventHandler eventHandler, Class<? extends IEvent> clazz, HandlerInvoker invoker, WeakListener reference, Object key) {
+        Priority priority = eventHandler.priority();
         priority = Objects.isNull(priority) ? Priority.NORMAL : priority; // Null safety check.
 
-        boolean ignoreCanceled = oHandler.get().ignoreCancelled();
+        if(Objects.isNull(reference))
+            return new Handler(instance, method, priority, eventHandler.ignoreCancelled(), eventHandler.async(), eventHandler.parallel(), clazz, invoker, null, key);
 
-        Handler handler = new Handler(instance, method, priority, ignoreCanceled, clazz);
+        // The instance is resolved by the invoker, so the call loop is the same for weak and strong handlers.
+        HandlerInvoker weakInvoker = (ignored, event) -> {
+            Object target = reference.get();
+            if(!Objects.isNull(target))
+                invoker.invoke(target, event);
+        };
+        return new Handler(null, method, priority, eventHandler.ignoreCancelled(), eventHandler.async(), eventHandler.parallel(), clazz, weakInvoker, reference, key);
+    }
 
-        if(!this.listeners.containsKey(clazz))
-            listeners.put(clazz, new LinkedList<>());
+    /**
+     * Register every non-static listener of an instance at once.
+     * <br>
+     * <br>The listener methods of a class are only found the first time it is registered,
+     * <br>and the handler chains of all affected events are rebuilt once, instead of once per listener.
+     * <br>Handlers are ordered as if each listener was registered one by one.
+     * <br>Supplying a class registers its static listeners instead, as {@link #registerAll(Class)}.
+     *
+     * @param instance The listener instance.
+     * @return The handlers registered.
+     */
+    @Override
+    public List<Handler> registerAll(Object instance) {
+        return registerAll(instance, false);
+    }
 
-        // If we add the listener in the proper order,
-        // then we won't need to sort when we call the listener.
+    /**
+     * Register every non-static listener of an instance at once, optionally holding the instance weakly.
+     * <br>
+     * <br>A weakly registered instance is not kept alive by its handlers.
+     * <br>Once it is collected, its handlers are never invoked again, and are all unregistered in the background.
+     *
+     * @param instance The listener instance.
+     * @param weak Whether to hold the instance weakly.
+     * @return The handlers registered.
+     * @see #registerAll(Object)
+     */
+    @Override
+    public List<Handler> registerAll(Object instance, boolean weak) {
+        return registerAll(instance, weak, null);
+    }
 
-        int index = -1; // Referring back to the index later will prevent us from having to make a copy of the list to loop over. -1 Means to add last.
-        LinkedList<Handler> handlers = listeners.get(clazz); // Concurrent modification - Check for loop
-        if (handler.priority() == Priority.LAST) { // If we already know it's the last priority, we know we want to add it last.
-            // index = -1; // Assign last.
-        } else if(handlers.isEmpty()) {
-            index = 0;
-        } else {
-            for(Handler h : handlers) { // Concurrent modification - Cant add in while looping over.
-                index++;
-                // HIGHEST(5) < NORMAL(3) = false (Don't Add)
-                // NORMAL(3) < NORMAL(3) = false (Don't Add)
-                // LAST(0) < NORMAL(3) = true (Add)
-                if(h.priority().value < handler.priority().value) { // We don't check = here to make sure we're adding the handler last when the event priority is the same.
-                    break;
-                } else if (index == handlers.size()-1) { // Add as last handler if we've reached the end.
-                    index = -1;
-                }
+    /**
+     * @param scope The scope registering the listeners, which forgets them once the instance is collected, or null.
+     */
+    List<Handler> registerAll(Object instance, boolean weak, EventScope scope) {
+        Objects.requireNonNull(instance, "instance");
+        if(instance instanceof Class<?> clazz)
+            return registerAll(clazz);
+
+        return register(instance, EventHelper.getListenerMethods(instance.getClass()), false, weak ? new WeakListener(instance, this, scope) : null, null);
+    }
+
+    /**
+     * Register every non-static listener of an instance at once, which only receive {@link IKeyed} events with an equal key.
+     * <br>Every listener must listen for an {@link IKeyed} event, or a {@link KeyedListenerRegistrationException} is thrown, and none are registered.
+     *
+     * @param instance The listener instance.
+     * @param key The key of the events to receive.
+     * @return The handlers registered.
+     * @see #registerKeyed(Object, Method, Object)
+     */
+    @Override
+    public List<Handler> registerAllKeyed(Object instance, Object key) {
+        Objects.requireNonNull(instance, "instance");
+        Objects.requireNonNull(key, "key");
+        return register(instance, EventHelper.getListenerMethods(instance.getClass()), false, null, key);
+    }
+
+    /**
+     * Register every static listener of a class at once.
+     * <br>
+     * <br>The listener methods of a class are only found the first time it is registered,
+     * <br>and the handler chains of all affected events are rebuilt once, instead of once per listener.
+     *
+     * @param clazz The listener class.
+     * @return The handlers registered.
+     */
+    @Override
+    public List<Handler> registerAll(Class<?> clazz) {
+        return register(null, EventHelper.getListenerMethods(Objects.requireNonNull(clazz, "clazz")), true, null, null);
+    }
+
+    private List<Handler> register(Object instance, List<ListenerMethod> listeners, boolean isStatic, WeakListener reference, Object key) {
+        if(!Objects.isNull(key)) {
+            for(ListenerMethod listener : listeners) {
+                if(listener.isStatic() == isStatic && !IKeyed.class.isAssignableFrom(listener.event()))
+                    throw new KeyedListenerRegistrationException(listener.method());
             }
         }
 
-        if(index < 0) {
-            handlers.addLast(handler);
-        } else {
-            handlers.add(index, handler);
+        List<Handler> handlers = new ArrayList<>(listeners.size());
+        for(ListenerMethod listener : listeners) {
+            if(listener.isStatic() == isStatic)
+                handlers.add(createHandler(instance, listener.method(), listener.eventHandler(), listener.event(), listener.invoker(), reference, key));
         }
 
-        return handler;
+        synchronized (this.lock) {
+            this.registry = this.registry.register(handlers);
+            track(handlers);
+        }
+
+        return Collections.unmodifiableList(handlers);
+    }
+
+    /**
+     * Unregister every handler of an instance at once, rebuilding the handler chains of all affected events once.
+     * <br>Supplying a class unregisters its static listeners instead, as {@link #unregisterAll(Class)}.
+     *
+     * @param instance The listener instance.
+     * @return The handlers unregistered.
+     */
+    @Override
+    public List<Handler> unregisterAll(Object instance) {
+        Objects.requireNonNull(instance, "instance");
+        if(instance instanceof Class<?> clazz)
+            return unregisterAll(clazz);
+
+        return unregister(handler -> handler.target() == instance);
+    }
+
+    /**
+     * Unregister every static handler of a class at once, rebuilding the handler chains of all affected events once.
+     *
+     * @param clazz The listener class.
+     * @return The handlers unregistered.
+     */
+    @Override
+    public List<Handler> unregisterAll(Class<?> clazz) {
+        Set<Method> methods = new HashSet<>();
+        for(ListenerMethod listener : EventHelper.getListenerMethods(Objects.requireNonNull(clazz, "clazz"))) {
+            if(listener.isStatic())
+                methods.add(listener.method());
+        }
+
+        return unregister(handler -> Objects.isNull(handler.instance()) && !handler.isWeak() && methods.contains(handler.method()));
+    }
+
+    /**
+     * Unregister the handlers of weakly held instances which have been collected.
+     * @param references The collected references.
+     */
+    void reclaim(Set<WeakListener> references) {
+        List<Handler> removed = unregister(handler -> handler.isWeak() && references.contains(handler.reference()));
+
+        // Scopes forget reclaimed handlers too, so a long-lived scope does not keep every handler it ever registered.
+        // This runs outside the lock, as scopes take their own lock before it.
+        Map<EventScope, List<Handler>> scoped = new IdentityHashMap<>();
+        for(Handler handler : removed) {
+            EventScope scope = ((WeakListener) handler.reference()).getScope();
+            if(!Objects.isNull(scope))
+                scoped.computeIfAbsent(scope, key -> new ArrayList<>()).add(handler);
+        }
+        scoped.forEach(EventScope::reclaim);
+    }
+
+    private List<Handler> unregister(Predicate<Handler> filter) {
+        List<Handler> removed;
+        synchronized (this.lock) {
+            removed = this.registry.select(filter);
+            this.registry = this.registry.unregister(removed);
+            forget(removed);
+        }
+
+        return Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * Unregister many handlers at once, rebuilding the handler chains of all affected events once.
+     * @param handlers The handlers to unregister. Handlers which are not registered are ignored.
+     */
+    void unregister(Collection<Handler> handlers) {
+        if(handlers.isEmpty())
+            return;
+
+        synchronized (this.lock) {
+            this.registry = this.registry.unregister(handlers);
+            forget(handlers);
+        }
+    }
+
+    /**
+     * Track the metrics and watchdog state of newly registered handlers.
+     * <br>Called under the lock, so a handler is never tracked after it is forgotten.
+     */
+    private void track(Collection<Handler> added) {
+        DispatchMetrics metrics = this.metrics;
+        if(!Objects.isNull(metrics))
+            metrics.addHandlers(added);
+
+        HandlerWatchdog watchdog = this.watchdog;
+        if(!Objects.isNull(watchdog))
+            watchdog.addHandlers(added);
+    }
+
+    /**
+     * Forget the metrics and watchdog state of unregistered handlers.
+     * <br>Called under the lock, so a handler is never tracked after it is forgotten.
+     */
+    private void forget(Collection<Handler> removed) {
+        DispatchMetrics metrics = this.metrics;
+        if(!Objects.isNull(metrics))
+            metrics.removeHandlers(removed);
+
+        HandlerWatchdog watchdog = this.watchdog;
+        if(!Objects.isNull(watchdog))
+            watchdog.removeHandlers(removed);
     }
 
     /**
@@ -117,10 +419,9 @@ public class DefaultEventManager implements IEventManager {
      */
     @Override
     public void unregisterListener(Handler handler) {
-        LinkedList<Handler> handlers = listeners.get(handler.event());
-        handlers.remove(handler);
-        if(handlers.isEmpty()) {
-            listeners.remove(handler.event());
+        synchronized (this.lock) {
+            this.registry = this.registry.unregister(handler);
+            forget(List.of(handler));
         }
     }
 
@@ -128,52 +429,680 @@ public class DefaultEventManager implements IEventManager {
      * Call all listeners listening to the event supplied.
      * <br>
      * <br>Listeners and events can utilize a hierarchy of interfaces and extensions to organize and execute listeners and events.
+     * <br>An event is delivered to the listeners of all of its parent classes and interfaces, merged in priority order.
+     * <br>
+     * <br>Anything thrown by a listener is wrapped in an {@link InvocationTargetException}, the same as reflective invocation.
+     * <br>
+     * <br>Asynchronous handlers are handed to the executor once all other handlers have completed,
+     * <br>and their exceptions are reported to the exception handler instead.
+     * <br>Consecutive parallel handlers of the same priority run concurrently on the executor and the calling thread, and all complete before the next handler runs.
      *
      * @param event Finds all functions listening to the specified event type.
      * @return A map of all the handlers that had exceptions in their executions.
+     * <br>When no handler throws, this is a shared, empty and unmodifiable map, so the call does not allocate.
      */
     @Override
     public Map<Handler, Exception> call(IEvent event) {
-        Map<Handler, Exception> exceptions = new HashMap<>();
+        Map<Handler, Exception> exceptions = dispatch(this.registry.resolve(event.getClass()).forEvent(event), event, null);
+        return Objects.isNull(exceptions) ? Collections.emptyMap() : exceptions;
+    }
+
+    /**
+     * Check whether any listener would receive an event of this type.
+     * <br>
+     * <br>This includes listeners of every parent class and interface of the type, and keyed listeners of any key.
+     * <br>Once an event type has been resolved, this is a single lookup in the published handlers, and never locks or allocates.
+     *
+     * @param event The concrete event type.
+     * @return Whether the event type has listeners.
+     */
+    @Override
+    public boolean hasListeners(Class<? extends IEvent> event) {
+        return !this.registry.resolve(event).isEmpty();
+    }
+
+    /**
+     * Call all listeners listening to the event type supplied, only creating the event if there are any.
+     * <br>
+     * <br>The event is dispatched over the same snapshot of the handlers that was checked for listeners.
+     *
+     * @param event The concrete event type.
+     * @param supplier Creates the event, which is only called when the event type has listeners.
+     * @return A map of all the handlers that had exceptions in their executions.
+     * <br>When there are no listeners, or no handler throws, this is a shared, empty and unmodifiable map.
+     */
+    @Override
+    public <E extends IEvent> Map<Handler, Exception> call(Class<E> event, Supplier<? extends E> supplier) {
+        HandlerRegistry registry = this.registry;
+        HandlerChain chain = registry.resolve(event);
+        if(chain.isEmpty())
+            return Collections.emptyMap();
+
+        E instance = supplier.get();
+        if(instance.getClass() != event)
+            chain = registry.resolve(instance.getClass()); // A subclass may have listeners of its own.
+
+        Map<Handler, Exception> exceptions = dispatch(chain.forEvent(instance), instance, null);
+        return Objects.isNull(exceptions) ? Collections.emptyMap() : exceptions;
+    }
+
+    /**
+     * Call all listeners listening to the event supplied, reporting exceptions to the sink supplied.
+     * <br>
+     * <br>Unlike {@link #call(IEvent)}, nothing is collected, so a reusable sink allows calls to never allocate a result.
+     * <br>Anything thrown by a listener is wrapped in an {@link InvocationTargetException}, the same as reflective invocation.
+     *
+     * @param event Finds all functions listening to the specified event type.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     */
+    @Override
+    public void call(IEvent event, BiConsumer<Handler, Exception> exceptions) {
+        dispatch(this.registry.resolve(event.getClass()).forEvent(event), event, Objects.requireNonNull(exceptions, "exceptions"));
+    }
+
+    /**
+     * Call all listeners for each event in the batch, in the order the events are supplied.
+     * <br>
+     * <br>The handler chain is resolved once for each run of events of the same type,
+     * <br>and a batch is dispatched over a single snapshot of the registered handlers.
+     * <br>
+     * <br>In handler-major order, each handler processes every event in a run of the same type before the next handler runs.
+     * <br>Priority and cancellation still hold for each event, but handlers of different events interleave,
+     * <br>so this should only be used when the events are independent of each other.
+     *
+     * @param events The events to call.
+     * @param handlerMajor Whether to run each handler over the events, instead of each event through the handlers.
+     * @return A map of the events that had exceptions, to the handlers that had exceptions in their executions. Events are compared by identity.
+     */
+    @Override
+    public Map<IEvent, Map<Handler, Exception>> callAll(Collection<? extends IEvent> events, boolean handlerMajor) {
+        HandlerRegistry registry = this.registry;
+        Map<IEvent, Map<Handler, Exception>> exceptions = null;
+
+        // Watched handlers are tried one invocation at a time, so a tripped handler is not run over the rest of the batch.
+        if(!handlerMajor || !Objects.isNull(this.watchdog)) {
+            Class<?> type = null;
+            HandlerChain chain = null;
+            for(IEvent event : events) {
+                if(event.getClass() != type) {
+                    type = event.getClass();
+                    chain = registry.resolve(event.getClass());
+                }
+
+                Map<Handler, Exception> eventExceptions = dispatch(chain.forEvent(event), event, null);
+                if(!Objects.isNull(eventExceptions)) {
+                    if(Objects.isNull(exceptions))
+                        exceptions = new IdentityHashMap<>();
+                    exceptions.put(event, eventExceptions);
+                }
+            }
+        } else {
+            IEvent[] batch = events.toArray(new IEvent[0]);
+            EventJournal journal = this.journal;
+            if(!Objects.isNull(journal)) {
+                for(IEvent event : batch)
+                    record(journal, event);
+            }
 
-        boolean isCancellable = ICancellable.class.isAssignableFrom(event.getClass());
+            int start = 0;
+            while(start < batch.length) {
+                HandlerChain chain = registry.resolve(batch[start].getClass());
+                int end = start + 1;
+                while(end < batch.length && batch[end].getClass() == batch[start].getClass()
+                        && (!chain.keyed || Objects.equals(((IKeyed) batch[end]).getKey(), ((IKeyed) batch[start]).getKey())))
+                    end++;
 
-        for(Handler handler : getHandlers(event.getClass())) {
+                HandlerChain runChain = chain.forEvent(batch[start]);
+                if(!runChain.parallel) {
+                    exceptions = dispatchHandlerMajor(runChain, batch, start, end, exceptions);
+                } else {
+                    // Parallel segments already spread each event across threads, so they are called one by one.
+                    for(int e = start; e < end; e++) {
+                        Map<Handler, Exception> eventExceptions = dispatchParallel(runChain, batch[e], null);
+                        if(!Objects.isNull(eventExceptions)) {
+                            if(Objects.isNull(exceptions))
+                                exceptions = new IdentityHashMap<>();
+                            exceptions.put(batch[e], eventExceptions);
+                        }
+                    }
+                }
+                start = end;
+            }
+        }
+
+        return Objects.isNull(exceptions) ? Collections.emptyMap() : exceptions;
+    }
+
+    /**
+     * Run the handler chain for an event.
+     * <br>Nothing is allocated unless a handler throws, or there are asynchronous handlers to hand off.
+     * @param sink Where to report exceptions, or null to collect them.
+     * @return The exceptions thrown by handlers, or null if there were none or they were reported to the sink.
+     */
+    private Map<Handler, Exception> dispatch(HandlerChain chain, IEvent event, BiConsumer<Handler, Exception> sink) {
+        EventJournal journal = this.journal;
+        if(!Objects.isNull(journal))
+            record(journal, event);
+
+        if(chain.parallel)
+            return dispatchParallel(chain, event, sink);
+
+        DispatchMetrics metrics = this.metrics;
+        HandlerWatchdog watchdog = this.watchdog;
+        if(!Objects.isNull(metrics) || !Objects.isNull(watchdog))
+            return dispatchMeasured(chain, event, sink, metrics, watchdog);
+
+        Map<Handler, Exception> exceptions = null;
+        boolean isCancellable = chain.cancellable;
+
+        Handler[] handlers = chain.sync;
+        for(int i = 0; i < handlers.length; i++) {
+            Handler handler = handlers[i];
             try {
                 if(isCancellable && ((ICancellable)event).isCanceled() && !handler.ignoreCanceled()) {
                     continue;
                 }
 
-                handler.method().invoke(handler.instance(), event);
-            } catch (Exception exception) {
-                exceptions.put(handler, exception);
+                handler.invoker().invoke(handler.instance(), event);
+            } catch (Throwable throwable) {
+                exceptions = report(exceptions, sink, handler, throwable);
 
                 if(this.stopExecutionOnException) {
+                    return exceptions;
+                }
+            }
+        }
+
+        if(chain.async.length > 0)
+            dispatchAsync(chain.async, isCancellable, event);
+
+        return exceptions;
+    }
+
+    /**
+     * Record an event to the journal, reporting a failure to the exception handler, so the event is still dispatched.
+     */
+    private void record(EventJournal journal, IEvent event) {
+        try {
+            journal.record(event);
+        } catch (RuntimeException exception) {
+            this.exceptionHandler.accept(null, exception);
+        }
+    }
+
+    /**
+     * Run the handler chain for an event, timing each of its handlers for the metrics and watchdog, whichever are enabled.
+     * @see #dispatch(HandlerChain, IEvent, BiConsumer)
+     */
+    private Map<Handler, Exception> dispatchMeasured(HandlerChain chain, IEvent event, BiConsumer<Handler, Exception> sink, DispatchMetrics metrics, HandlerWatchdog watchdog) {
+        Map<Handler, Exception> exceptions = null;
+        int failures = 0;
+        boolean isCancellable = chain.cancellable;
+        long eventStart = System.nanoTime();
+
+        Handler[] handlers = chain.sync;
+        for(int i = 0; i < handlers.length; i++) {
+            Throwable thrown = invoke(handlers[i], event, isCancellable && ((ICancellable)event).isCanceled(), metrics, watchdog);
+            if(Objects.isNull(thrown))
+                continue;
+
+            failures++;
+            exceptions = report(exceptions, sink, handlers[i], thrown);
+            if(this.stopExecutionOnException)
+                break;
+        }
+
+        if(!Objects.isNull(metrics)) {
+            boolean canceled = isCancellable && ((ICancellable)event).isCanceled();
+            metrics.recordEvent(event.getClass(), System.nanoTime() - eventStart, canceled, failures);
+        }
+
+        if(chain.async.length > 0 && (failures == 0 || !this.stopExecutionOnException))
+            dispatchAsync(chain.async, isCancellable, event);
+
+        return exceptions;
+    }
+
+    /**
+     * Run the handler chain for an event, running each segment of parallel handlers concurrently.
+     * <br>Single handler segments run on the calling thread, without allocating.
+     * <br>A longer segment's handlers are offered to the executor, and the calling thread runs every handler it has not started yet,
+     * <br>so the call never waits on a handler which is only queued. All complete before the next segment starts.
+     * <br>Their exceptions are reported in the order of the chain.
+     * @see #dispatch(HandlerChain, IEvent, BiConsumer)
+     */
+    private Map<Handler, Exception> dispatchParallel(HandlerChain chain, IEvent event, BiConsumer<Handler, Exception> sink) {
+        DispatchMetrics metrics = this.metrics;
+        HandlerWatchdog watchdog = this.watchdog;
+        Map<Handler, Exception> exceptions = null;
+        int failures = 0;
+        boolean isCancellable = chain.cancellable;
+        long eventStart = Objects.isNull(metrics) ? 0 : System.nanoTime();
+
+        Handler[] handlers = chain.sync;
+        int[] segments = chain.segments;
+        for(int s = 0; s < segments.length - 1; s++) {
+            int start = segments[s];
+            int end = segments[s + 1];
+
+            // Cancellation is only checked between segments, as parallel handlers may still be reading the event.
+            boolean canceled = isCancellable && ((ICancellable)event).isCanceled();
+            if(end - start == 1) {
+                Throwable thrown = invoke(handlers[start], event, canceled, metrics, watchdog);
+                if(Objects.isNull(thrown))
+                    continue;
+
+                failures++;
+                exceptions = report(exceptions, sink, handlers[start], thrown);
+                if(this.stopExecutionOnException)
                     break;
+                continue;
+            }
+
+            ParallelSegment segment = new ParallelSegment(handlers, start, end, event, canceled, metrics, watchdog);
+            for(int i = start + 1; i < end; i++) {
+                try {
+                    this.executor.execute(segment);
+                } catch (RejectedExecutionException exception) {
+                    break; // The calling thread runs the rest.
+                }
+            }
+            while(segment.runNext());
+            awaitUninterruptibly(segment.done);
+
+            int segmentFailures = 0;
+            for(int i = 0; i < segment.thrown.length; i++) {
+                if(Objects.isNull(segment.thrown[i]))
+                    continue;
+                segmentFailures++;
+                exceptions = report(exceptions, sink, handlers[start + i], segment.thrown[i]);
+            }
+
+            failures += segmentFailures;
+            if(segmentFailures > 0 && this.stopExecutionOnException)
+                break;
+        }
+
+        if(!Objects.isNull(metrics)) {
+            boolean canceled = isCancellable && ((ICancellable)event).isCanceled();
+            metrics.recordEvent(event.getClass(), System.nanoTime() - eventStart, canceled, failures);
+        }
+
+        if(chain.async.length > 0 && (failures == 0 || !this.stopExecutionOnException))
+            dispatchAsync(chain.async, isCancellable, event);
+
+        return exceptions;
+    }
+
+    /**
+     * The handlers of a parallel segment, each claimed once, by either a task on the executor or the calling thread.
+     */
+    private final class ParallelSegment implements Runnable {
+        private final Handler[] handlers;
+        private final int start;
+        private final IEvent event;
+        private final boolean canceled;
+        private final DispatchMetrics metrics;
+        private final HandlerWatchdog watchdog;
+        private final Throwable[] thrown;
+        private final AtomicInteger next = new AtomicInteger();
+        private final CountDownLatch done;
+
+        private ParallelSegment(Handler[] handlers, int start, int end, IEvent event, boolean canceled, DispatchMetrics metrics, HandlerWatchdog watchdog) {
+            this.handlers = handlers;
+            this.start = start;
+            this.event = event;
+            this.canceled = canceled;
+            this.metrics = metrics;
+            this.watchdog = watchdog;
+            this.thrown = new Throwable[end - start];
+            this.done = new CountDownLatch(end - start);
+        }
+
+        @Override
+        public void run() {
+            runNext();
+        }
+
+        /**
+         * Run the next handler nobody has claimed yet.
+         * @return Whether there was a handler left to run.
+         */
+        private boolean runNext() {
+            int index = this.next.getAndIncrement();
+            if(index >= this.thrown.length)
+                return false;
+
+            try {
+                this.thrown[index] = invoke(this.handlers[this.start + index], this.event, this.canceled, this.metrics, this.watchdog);
+            } finally {
+                this.done.countDown();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Invoke a handler, unless the event is canceled and the handler does not ignore it.
+     * <br>Handlers tripped by the watchdog are skipped or handed to the executor instead, as set by its {@link BreakerAction}.
+     * @return Anything thrown by the handler, or null.
+     */
+    private Throwable invoke(Handler handler, IEvent event, boolean canceled, DispatchMetrics metrics, HandlerWatchdog watchdog) {
+        if(canceled && !handler.ignoreCanceled())
+            return null;
+
+        boolean timed = !Objects.isNull(metrics) || !Objects.isNull(watchdog);
+        long start = timed ? System.nanoTime() : 0;
+        if(!Objects.isNull(watchdog) && watchdog.isTripped(handler, start)) {
+            if(watchdog.getAction() == BreakerAction.DEMOTE)
+                dispatchAsync(handler, event);
+            return null;
+        }
+
+        Throwable thrown = null;
+        try {
+            handler.invoker().invoke(handler.instance(), event);
+        } catch (Throwable throwable) {
+            thrown = throwable;
+        }
+
+        if(timed) {
+            long end = System.nanoTime();
+            if(!Objects.isNull(metrics))
+                metrics.recordHandler(handler, end - start, !Objects.isNull(thrown));
+            if(!Objects.isNull(watchdog)) {
+                IEvent notice = watchdog.record(handler, end - start, !Objects.isNull(thrown), end);
+                if(!Objects.isNull(notice))
+                    call(notice, this.exceptionHandler);
+            }
+        }
+        return thrown;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while(true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if(interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Report an exception thrown by a handler to the sink, or collect it if there is no sink.
+     * @return The exceptions collected so far, or null if there are none.
+     */
+    private static Map<Handler, Exception> report(Map<Handler, Exception> exceptions, BiConsumer<Handler, Exception> sink, Handler handler, Throwable throwable) {
+        Exception exception = new InvocationTargetException(throwable);
+        if(!Objects.isNull(sink)) {
+            sink.accept(handler, exception);
+            return exceptions;
+        }
+
+        if(Objects.isNull(exceptions))
+            exceptions = new HashMap<>();
+        exceptions.put(handler, exception);
+        return exceptions;
+    }
+
+    /**
+     * Run each handler of the chain over a run of events of the chain's type.
+     * @return The exceptions of the batch so far, or null if there were none.
+     */
+    private Map<IEvent, Map<Handler, Exception>> dispatchHandlerMajor(HandlerChain chain, IEvent[] events, int start, int end, Map<IEvent, Map<Handler, Exception>> exceptions) {
+        boolean isCancellable = chain.cancellable;
+        boolean[] stopped = null; // Only needed once an event stops executing on an exception.
+
+        // An event's time is spread across the run, so it is added up from its handlers.
+        DispatchMetrics metrics = this.metrics;
+        long[] eventNanos = Objects.isNull(metrics) ? null : new long[end - start];
+        int[] eventFailures = Objects.isNull(metrics) ? null : new int[end - start];
+
+        Handler[] handlers = chain.sync;
+        for(int i = 0; i < handlers.length; i++) {
+            Handler handler = handlers[i];
+            for(int e = start; e < end; e++) {
+                IEvent event = events[e];
+                if(!Objects.isNull(stopped) && stopped[e - start])
+                    continue;
+
+                long handlerStart = Objects.isNull(metrics) ? 0 : System.nanoTime();
+                try {
+                    if(isCancellable && ((ICancellable)event).isCanceled() && !handler.ignoreCanceled()) {
+                        continue;
+                    }
+
+                    handler.invoker().invoke(handler.instance(), event);
+
+                    if(!Objects.isNull(metrics)) {
+                        long nanos = System.nanoTime() - handlerStart;
+                        metrics.recordHandler(handler, nanos, false);
+                        eventNanos[e - start] += nanos;
+                    }
+                } catch (Throwable throwable) {
+                    if(!Objects.isNull(metrics)) {
+                        long nanos = System.nanoTime() - handlerStart;
+                        metrics.recordHandler(handler, nanos, true);
+                        eventNanos[e - start] += nanos;
+                        eventFailures[e - start]++;
+                    }
+
+                    if(Objects.isNull(exceptions))
+                        exceptions = new IdentityHashMap<>();
+                    exceptions.computeIfAbsent(event, key -> new HashMap<>()).put(handler, new InvocationTargetException(throwable));
+
+                    if(this.stopExecutionOnException) {
+                        if(Objects.isNull(stopped))
+                            stopped = new boolean[end - start];
+                        stopped[e - start] = true;
+                    }
                 }
             }
         }
+
+        if(!Objects.isNull(metrics)) {
+            for(int e = start; e < end; e++) {
+                boolean canceled = isCancellable && ((ICancellable)events[e]).isCanceled();
+                metrics.recordEvent(events[e].getClass(), eventNanos[e - start], canceled, eventFailures[e - start]);
+            }
+        }
+
+        if(chain.async.length > 0) {
+            for(int e = start; e < end; e++) {
+                if(Objects.isNull(stopped) || !stopped[e - start])
+                    dispatchAsync(chain.async, isCancellable, events[e]);
+            }
+        }
+
         return exceptions;
     }
 
+    /**
+     * Hand the fire-and-forget handlers of an event to the executor.
+     * <br>Cancellation is checked once, as the synchronous handlers are done with the event.
+     */
+    private void dispatchAsync(Handler[] handlers, boolean isCancellable, IEvent event) {
+        boolean canceled = isCancellable && ((ICancellable)event).isCanceled();
+        for(Handler handler : handlers) {
+            if(canceled && !handler.ignoreCanceled())
+                continue;
+
+            dispatchAsync(handler, event);
+        }
+    }
+
+    /**
+     * Hand a handler to the executor, reporting its exception to the exception handler.
+     */
+    private void dispatchAsync(Handler handler, IEvent event) {
+        this.executor.execute(() -> {
+            DispatchMetrics metrics = this.metrics;
+            long start = Objects.isNull(metrics) ? 0 : System.nanoTime();
+            try {
+                handler.invoker().invoke(handler.instance(), event);
+                if(!Objects.isNull(metrics))
+                    metrics.recordHandler(handler, System.nanoTime() - start, false);
+            } catch (Throwable throwable) {
+                if(!Objects.isNull(metrics))
+                    metrics.recordHandler(handler, System.nanoTime() - start, true);
+                this.exceptionHandler.accept(handler, new InvocationTargetException(throwable));
+            }
+        });
+    }
+
+    /**
+     * Enables or disables recording dispatch metrics.
+     * <br>
+     * <br>While enabled, each event and handler is timed, and counts are kept per event type and handler.
+     * <br>While disabled, calls only pay for checking whether metrics are enabled.
+     * @param metrics The metrics to record to, or null to disable recording.
+     */
+    public void setMetrics(DispatchMetrics metrics) {
+        synchronized (this.lock) {
+            this.metrics = metrics;
+            if(!Objects.isNull(metrics))
+                metrics.addHandlers(this.registry.select(handler -> true));
+        }
+    }
+
+    /**
+     * @return The metrics being recorded to, or null if recording is disabled.
+     */
+    public DispatchMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Enables or disables the handler watchdog.
+     * <br>
+     * <br>While enabled, each synchronous handler is timed against its budget, and handlers which repeatedly overrun it or throw
+     * <br>are disabled or demoted to asynchronous execution until their cooldown passes. Asynchronous handlers are not watched.
+     * <br>Handler-major batches are called event by event instead, so a tripped handler stops being run within the batch.
+     * <br>While disabled, calls only pay for checking whether the watchdog is enabled.
+     * @param watchdog The watchdog to watch handlers with, or null to disable it.
+     */
+    public void setWatchdog(HandlerWatchdog watchdog) {
+        synchronized (this.lock) {
+            this.watchdog = watchdog;
+            if(!Objects.isNull(watchdog))
+                watchdog.addHandlers(this.registry.select(handler -> true));
+        }
+    }
+
+    /**
+     * @return The watchdog watching handlers, or null if it is disabled.
+     */
+    public HandlerWatchdog getWatchdog() {
+        return this.watchdog;
+    }
+
+    /**
+     * Enables or disables journaling called events.
+     * <br>
+     * <br>While enabled, every event is recorded before its handlers run, including events without listeners,
+     * <br>so the journal can be replayed against a different set of listeners.
+     * <br>Events which are never created, as no one listens for them, are not recorded.
+     * <br>An event which could not be recorded, such as when the journal is closed, is still dispatched,
+     * <br>and the failure is reported to the exception handler with a null handler.
+     * <br>While disabled, calls only pay for checking whether journaling is enabled.
+     * @param journal The journal to record to, or null to disable journaling.
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @return The journal being recorded to, or null if journaling is disabled.
+     */
+    public EventJournal getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * Sets where exceptions from asynchronous handlers are reported.
+     * <br>Events which could not be journaled are reported here too, with a null handler.
+     * <br>By default, they are passed to the uncaught exception handler of the thread the handler ran on.
+     * @param exceptionHandler Accepts the handler and the exception it threw.
+     */
+    public void setExceptionHandler(BiConsumer<Handler, Exception> exceptionHandler) {
+        this.exceptionHandler = Objects.requireNonNull(exceptionHandler, "exceptionHandler");
+    }
+
+    private static void uncaughtException(Handler handler, Exception exception) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+    /**
+     * Call all listeners listening to the event supplied, without blocking the calling thread.
+     * <br>
+     * <br>The event is dispatched on the executor this event manager was created with, which defaults to virtual threads.
+     * <br>Handlers for a single event still run one after another, in priority order, and still respect cancellation.
+     *
+     * @param event Finds all functions listening to the specified event type.
+     * @return A future completed with a map of all the handlers that had exceptions in their executions.
+     */
+    @Override
+    public CompletableFuture<Map<Handler, Exception>> callAsync(IEvent event) {
+        return callAsync(event, this.executor);
+    }
+
+    /**
+     * Open a scope which registers listeners through this event manager, and unregisters all of them at once when closed.
+     * <br>
+     * <br>Handlers registered through a scope are ordered with every other handler of this event manager,
+     * <br>so events called on either are delivered to all of them in the usual priority order.
+     * @return A new scope.
+     */
+    public EventScope openScope() {
+        return new EventScope(this, null);
+    }
+
+    /**
+     * @return The executor asynchronous calls are dispatched on.
+     */
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
     /**
      * Get all listener events for this event manager.
      * @return An unmodifiable set of events this manager has handlers that are listening for.
      */
     public Set<Class<? extends IEvent>> getListeners() {
-        return Collections.unmodifiableSet(listeners.keySet());
+        return this.registry.getEvents();
     }
 
     /**
-     * The way we find listeners for an event will not find all assignable event parent events.
+     * Get all handlers an event of this type will be delivered to, in the order they will be called.
+     * <br>This includes handlers listening for any parent class or interface of the event.
+     * <br>Keyed handlers are only included for their key, through {@link #getHandlers(Class, Object)}.
      * @param event The event to identify handlers for.
      * @return A list of handlers for the event.
      */
     public List<Handler> getHandlers(Class<? extends IEvent> event) {
-        LinkedList<Handler> handlers = this.listeners.get(event);
-        if(handlers == null) {
-            handlers = new LinkedList<>();
-        }
-        return Collections.unmodifiableList(handlers);
+        Handler[] handlers = this.registry.resolve(event).handlers;
+        if(handlers.length == 0)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(handlers));
+    }
+
+    /**
+     * Get all handlers an {@link IKeyed} event of this type and key will be delivered to, in the order they will be called.
+     * <br>This includes the unkeyed handlers, and handlers listening for any parent class or interface of the event.
+     * @param event The event to identify handlers for.
+     * @param key The key of the event.
+     * @return A list of handlers for the event.
+     */
+    public List<Handler> getHandlers(Class<? extends IEvent> event, Object key) {
+        Handler[] handlers = this.registry.resolve(event).forKey(key).handlers;
+        if(handlers.length == 0)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(handlers));
     }
 }
@@ -0,0 +1,297 @@
+package dev.westernpine.events.manager;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.helper.EventHelper;
+import dev.westernpine.events.helper.ListenerMethod;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A scope of listeners registered through an event manager, such as those of a module which can be unloaded.
+ * <br>
+ * <br>Scopes do not have handlers of their own. Listeners are registered with the event manager,
+ * <br>where they are ordered with every other handler by priority and registration order, and the scope keeps track of them.
+ * <br>Events called on a scope are called on its event manager, so they reach every handler, in or out of the scope.
+ * <br>
+ * <br>Closing a scope unregisters all of its handlers, and those of its child scopes, in a single registry rebuild,
+ * <br>instead of one rebuild per handler. A closed scope cannot register listeners.
+ */
+public class EventScope implements IEventManager, AutoCloseable {
+
+    private final DefaultEventManager manager;
+
+    private final EventScope parent;
+
+    /**
+     * Guards the scope's handlers, so handlers registered while closing are not lost.
+     * <br>This is always taken before the event manager's lock.
+     */
+    private final Object lock = new Object();
+
+    private final Set<Handler> handlers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final List<EventScope> children = new ArrayList<>();
+
+    private boolean closed;
+
+    EventScope(DefaultEventManager manager, EventScope parent) {
+        this.manager = manager;
+        this.parent = parent;
+    }
+
+    /**
+     * Open a child scope, which is closed alongside this scope.
+     * @return A new scope.
+     * @throws IllegalStateException When this scope is closed.
+     */
+    public EventScope openScope() {
+        synchronized (this.lock) {
+            checkOpen();
+            EventScope child = new EventScope(this.manager, this);
+            this.children.add(child);
+            return child;
+        }
+    }
+
+    @Override
+    public Handler registerListener(Object instance, Method method) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerListener(instance, method));
+        }
+    }
+
+    @Override
+    public Handler registerListener(Object instance, Method method, boolean weak) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerListener(instance, method, weak, null, this));
+        }
+    }
+
+    @Override
+    public Handler registerKeyed(Object instance, Method method, Object key) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerKeyed(instance, method, key));
+        }
+    }
+
+    /**
+     * Unregisters a handler of this scope from the event listeners.
+     * <br>Handlers which were not registered through this scope are left registered.
+     * @param handler The handler object returned from registering the listener.
+     */
+    @Override
+    public void unregisterListener(Handler handler) {
+        synchronized (this.lock) {
+            if(this.handlers.remove(handler))
+                this.manager.unregisterListener(handler);
+        }
+    }
+
+    @Override
+    public List<Handler> registerAll(Object instance) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerAll(instance));
+        }
+    }
+
+    @Override
+    public List<Handler> registerAll(Object instance, boolean weak) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerAll(instance, weak, this));
+        }
+    }
+
+    @Override
+    public List<Handler> registerAllKeyed(Object instance, Object key) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerAllKeyed(instance, key));
+        }
+    }
+
+    @Override
+    public List<Handler> registerAll(Class<?> clazz) {
+        synchronized (this.lock) {
+            checkOpen();
+            return track(this.manager.registerAll(clazz));
+        }
+    }
+
+    /**
+     * Unregister every handler of this scope registered with an instance at once.
+     * <br>Supplying a class unregisters its static listeners instead, as {@link #unregisterAll(Class)}.
+     *
+     * @param instance The listener instance.
+     * @return The handlers unregistered.
+     */
+    @Override
+    public List<Handler> unregisterAll(Object instance) {
+        Objects.requireNonNull(instance, "instance");
+        if(instance instanceof Class<?> clazz)
+            return unregisterAll(clazz);
+
+        synchronized (this.lock) {
+            return untrack(handler -> handler.target() == instance);
+        }
+    }
+
+    /**
+     * Unregister every static handler of this scope of a class at once.
+     *
+     * @param clazz The listener class.
+     * @return The handlers unregistered.
+     */
+    @Override
+    public List<Handler> unregisterAll(Class<?> clazz) {
+        Set<Method> methods = new HashSet<>();
+        for(ListenerMethod listener : EventHelper.getListenerMethods(Objects.requireNonNull(clazz, "clazz"))) {
+            if(listener.isStatic())
+                methods.add(listener.method());
+        }
+
+        synchronized (this.lock) {
+            return untrack(handler -> Objects.isNull(handler.instance()) && !handler.isWeak() && methods.contains(handler.method()));
+        }
+    }
+
+    /**
+     * Unregister every handler of this scope and its child scopes, rebuilding the handler chains of all affected events once.
+     * <br>Closing a closed scope does nothing.
+     */
+    @Override
+    public void close() {
+        List<Handler> removed = new ArrayList<>();
+        if(!collect(removed))
+            return;
+
+        this.manager.unregister(removed);
+
+        if(!Objects.isNull(this.parent)) {
+            synchronized (this.parent.lock) {
+                this.parent.children.remove(this);
+            }
+        }
+    }
+
+    /**
+     * Forget weakly registered handlers, once the event manager has unregistered them because their instance was collected.
+     * @param handlers The reclaimed handlers.
+     */
+    void reclaim(List<Handler> handlers) {
+        synchronized (this.lock) {
+            handlers.forEach(this.handlers::remove);
+        }
+    }
+
+    /**
+     * Close this scope and its child scopes, collecting their handlers.
+     * @return Whether this scope was open.
+     */
+    private boolean collect(List<Handler> removed) {
+        synchronized (this.lock) {
+            if(this.closed)
+                return false;
+
+            this.closed = true;
+            removed.addAll(this.handlers);
+            this.handlers.clear();
+            for(EventScope child : this.children)
+                child.collect(removed);
+            this.children.clear();
+            return true;
+        }
+    }
+
+    /**
+     * @return Whether this scope is closed.
+     */
+    public boolean isClosed() {
+        synchronized (this.lock) {
+            return this.closed;
+        }
+    }
+
+    /**
+     * @return The handlers registered through this scope, excluding those of its child scopes.
+     */
+    public List<Handler> getHandlers() {
+        synchronized (this.lock) {
+            return List.copyOf(this.handlers);
+        }
+    }
+
+    /**
+     * @return The event manager the scope registers through.
+     */
+    public DefaultEventManager getManager() {
+        return this.manager;
+    }
+
+    @Override
+    public Map<Handler, Exception> call(IEvent event) {
+        return this.manager.call(event);
+    }
+
+    @Override
+    public boolean hasListeners(Class<? extends IEvent> event) {
+        return this.manager.hasListeners(event);
+    }
+
+    @Override
+    public <E extends IEvent> Map<Handler, Exception> call(Class<E> event, Supplier<? extends E> supplier) {
+        return this.manager.call(event, supplier);
+    }
+
+    @Override
+    public void call(IEvent event, BiConsumer<Handler, Exception> exceptions) {
+        this.manager.call(event, exceptions);
+    }
+
+    @Override
+    public Map<IEvent, Map<Handler, Exception>> callAll(Collection<? extends IEvent> events, boolean handlerMajor) {
+        return this.manager.callAll(events, handlerMajor);
+    }
+
+    @Override
+    public CompletableFuture<Map<Handler, Exception>> callAsync(IEvent event) {
+        return this.manager.callAsync(event);
+    }
+
+    private void checkOpen() {
+        if(this.closed)
+            throw new IllegalStateException("Scope is closed.");
+    }
+
+    private Handler track(Handler handler) {
+        this.handlers.add(handler);
+        return handler;
+    }
+
+    private List<Handler> track(List<Handler> handlers) {
+        this.handlers.addAll(handlers);
+        return handlers;
+    }
+
+    private List<Handler> untrack(Predicate<Handler> filter) {
+        List<Handler> removed = new ArrayList<>();
+        for(Handler handler : this.handlers) {
+            if(filter.test(handler))
+                removed.add(handler);
+        }
+        removed.forEach(this.handlers::remove);
+        this.manager.unregister(removed);
+        return Collections.unmodifiableList(removed);
+    }
+
+}
@@ -0,0 +1,200 @@
+package dev.westernpine.events.manager;
+
+import dev.westernpine.events.event.ICancellable;
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.event.IKeyed;
+import dev.westernpine.events.handler.Handler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The resolved handlers for a concrete event type, precomputed for dispatching.
+ * <br>
+ * <br>Chains are immutable, and are cached by the {@link HandlerRegistry} they were resolved from.
+ * <br>For {@link IKeyed} events, the chain holds the unkeyed handlers, and the keyed handlers are indexed by their key.
+ * <br>The chain for a key is merged from both on its first call.
+ */
+final class HandlerChain {
+
+    /**
+     * Every handler, in the order they are called.
+     */
+    final Handler[] handlers;
+
+    /**
+     * The handlers that run on the calling thread, in priority order.
+     */
+    final Handler[] sync;
+
+    /**
+     * The fire-and-forget handlers, handed off after the synchronous handlers complete.
+     */
+    final Handler[] async;
+
+    /**
+     * Whether the event type is {@link ICancellable}, so cancellation only has to be checked for these events.
+     */
+    final boolean cancellable;
+
+    /**
+     * Whether there are parallel synchronous handlers, so only these events are dispatched in segments.
+     */
+    final boolean parallel;
+
+    /**
+     * The start of each segment of the synchronous handlers, followed by the number of synchronous handlers.
+     * <br>A segment is either a single handler, or consecutive parallel handlers of the same priority.
+     */
+    final int[] segments;
+
+    /**
+     * Whether there are keyed handlers, so the key only has to be read for these events.
+     */
+    final boolean keyed;
+
+    /**
+     * The position of each handler in the registry's global order, used to merge in keyed handlers.
+     */
+    private final int[] positions;
+
+    /**
+     * The keyed handlers for each key, in the order they are called.
+     */
+    private final Map<Object, HandlerChain> keys;
+
+    /**
+     * The merged chain for each key that has been called.
+     */
+    private final ConcurrentHashMap<Object, HandlerChain> merged;
+
+    HandlerChain(Handler[] handlers, boolean cancellable) {
+        this(handlers, null, cancellable, Collections.emptyMap());
+    }
+
+    HandlerChain(Handler[] handlers, int[] positions, boolean cancellable, Map<Object, HandlerChain> keys) {
+        this.handlers = handlers;
+        this.positions = positions;
+        this.cancellable = cancellable;
+        this.keys = keys;
+        this.keyed = !keys.isEmpty();
+        this.merged = this.keyed ? new ConcurrentHashMap<>() : null;
+
+        int asyncCount = 0;
+        for(Handler handler : handlers) {
+            if(handler.async())
+                asyncCount++;
+        }
+
+        this.sync = new Handler[handlers.length - asyncCount];
+        this.async = new Handler[asyncCount];
+        int syncIndex = 0;
+        int asyncIndex = 0;
+        for(Handler handler : handlers) {
+            if(handler.async()) {
+                this.async[asyncIndex++] = handler;
+            } else {
+                this.sync[syncIndex++] = handler;
+            }
+        }
+
+        boolean parallel = false;
+        for(Handler handler : this.sync)
+            parallel |= handler.parallel();
+        this.parallel = parallel;
+        this.segments = parallel ? segment(this.sync) : null;
+    }
+
+    private static int[] segment(Handler[] handlers) {
+        int[] bounds = new int[handlers.length + 1];
+        int count = 0;
+        int i = 0;
+        while(i < handlers.length) {
+            bounds[count++] = i;
+            int end = i + 1;
+            if(handlers[i].parallel()) {
+                while(end < handlers.length && handlers[end].parallel() && handlers[end].priority() == handlers[i].priority())
+                    end++;
+            }
+            i = end;
+        }
+        bounds[count++] = handlers.length;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * @return Whether no handler would receive an event of the chain's type, whatever its key.
+     */
+    boolean isEmpty() {
+        return this.handlers.length == 0 && !this.keyed;
+    }
+
+    /**
+     * @param event An event of the chain's type.
+     * @return The chain for the event's key, or this chain if the event has no keyed handlers.
+     */
+    HandlerChain forEvent(IEvent event) {
+        return this.keyed ? forKey(((IKeyed) event).getKey()) : this;
+    }
+
+    /**
+     * @param key The routing key.
+     * @return The unkeyed handlers merged with the handlers for the key, or this chain if there are none for the key.
+     */
+    HandlerChain forKey(Object key) {
+        if(!this.keyed || Objects.isNull(key))
+            return this;
+
+        HandlerChain chain = this.merged.get(key);
+        if(Objects.isNull(chain)) {
+            HandlerChain keyed = this.keys.get(key);
+            if(Objects.isNull(keyed))
+                return this;
+
+            chain = new HandlerChain(merge(this.handlers, this.positions, keyed.handlers, keyed.positions), this.cancellable);
+            HandlerChain existing = this.merged.putIfAbsent(key, chain);
+            if(!Objects.isNull(existing))
+                chain = existing;
+        }
+        return chain;
+    }
+
+    /**
+     * Merges two handler arrays by their position in the global order.
+     */
+    private static Handler[] merge(Handler[] first, int[] firstPositions, Handler[] second, int[] secondPositions) {
+        Handler[] merged = new Handler[first.length + second.length];
+        int i = 0, j = 0, k = 0;
+        while(i < first.length && j < second.length)
+            merged[k++] = firstPositions[i] < secondPositions[j] ? first[i++] : second[j++];
+        while(i < first.length)
+            merged[k++] = first[i++];
+        while(j < second.length)
+            merged[k++] = second[j++];
+        return merged;
+    }
+
+    /**
+     * @param event The concrete event type.
+     * @param handlers Every handler for the event type, in the order they are called.
+     * @return A chain for the handlers.
+     */
+    static HandlerChain of(Class<? extends IEvent> event, Handler[] handlers) {
+        return new HandlerChain(handlers, ICancellable.class.isAssignableFrom(event));
+    }
+
+    /**
+     * @param event The concrete {@link IKeyed} event type.
+     * @param handlers The unkeyed handlers for the event type, in the order they are called.
+     * @param positions The position of each unkeyed handler in the global order.
+     * @param keys The keyed handlers for each key, as chains of their own.
+     * @return A chain for the handlers.
+     */
+    static HandlerChain of(Class<? extends IEvent> event, Handler[] handlers, int[] positions, Map<Object, HandlerChain> keys) {
+        return new HandlerChain(handlers, positions, ICancellable.class.isAssignableFrom(event), keys);
+    }
+
+}
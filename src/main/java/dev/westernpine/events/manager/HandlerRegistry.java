@@ -0,0 +1,352 @@
+package dev.westernpine.events.manager;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.event.IKeyed;
+import dev.westernpine.events.handler.Handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * An immutable snapshot of the handlers registered to an event manager.
+ * <br>
+ * <br>Registering or unregistering creates a new registry instead of modifying this one.
+ * <br>This lets any number of threads dispatch over a published registry without locking,
+ * <br>while writers build and publish the next one.
+ * <br>
+ * <br>Events are delivered to the handlers of every parent event they can be assigned to.
+ * <br>The merged handler chain for a concrete event type is resolved on its first call, and cached for the lifetime of the snapshot.
+ * <br>New snapshots carry over every cached chain the change could not have affected.
+ */
+final class HandlerRegistry {
+
+    private static final Handler[] NONE = new Handler[0];
+
+    private static final Comparator<Handler> BY_PRIORITY = Comparator.comparingInt((Handler handler) -> handler.priority().value).reversed();
+
+    /**
+     * Handlers for each event type, sorted by priority.
+     * <br>These arrays are never modified, so they can be dispatched over without copying.
+     */
+    private final Map<Class<? extends IEvent>, Handler[]> handlers;
+
+    /**
+     * Every handler in one global order, by priority and then registration order.
+     */
+    private final Handler[] ordered;
+
+    /**
+     * The resolved handler chains of concrete event types, including the handlers of their parent events.
+     */
+    private final ConcurrentHashMap<Class<?>, HandlerChain> resolved;
+
+    /**
+     * @return A registry without handlers, with a chain cache of its own, so managers never share cached chains.
+     */
+    static HandlerRegistry empty() {
+        return new HandlerRegistry(Collections.emptyMap(), NONE, new ConcurrentHashMap<>());
+    }
+
+    private HandlerRegistry(Map<Class<? extends IEvent>, Handler[]> handlers, Handler[] ordered, ConcurrentHashMap<Class<?>, HandlerChain> resolved) {
+        this.handlers = handlers;
+        this.ordered = ordered;
+        this.resolved = resolved;
+    }
+
+    /**
+     * Get every handler an event of this type is delivered to.
+     * <br>This includes the handlers of all the parent classes and interfaces of the event, merged in priority order.
+     * @param event The event type.
+     * @return The handler chain for the event type.
+     */
+    HandlerChain resolve(Class<? extends IEvent> event) {
+        HandlerChain chain = this.resolved.get(event);
+        if(Objects.isNull(chain)) {
+            chain = resolveUncached(event);
+            HandlerChain existing = this.resolved.putIfAbsent(event, chain);
+            if(!Objects.isNull(existing))
+                chain = existing;
+        }
+        return chain;
+    }
+
+    private HandlerChain resolveUncached(Class<? extends IEvent> event) {
+        // Filtering the global order keeps handlers of different parent events in priority, then registration order.
+        int count = 0;
+        Handler[] chain = new Handler[this.ordered.length];
+        boolean isKeyed = IKeyed.class.isAssignableFrom(event);
+        int[] positions = isKeyed ? new int[this.ordered.length] : null;
+        Map<Object, List<Integer>> keys = null;
+        for(int i = 0; i < this.ordered.length; i++) {
+            Handler handler = this.ordered[i];
+            if(!handler.event().isAssignableFrom(event))
+                continue;
+
+            if(!handler.isKeyed()) {
+                if(isKeyed)
+                    positions[count] = i;
+                chain[count++] = handler;
+            } else if(isKeyed) {
+                // Keyed handlers are indexed by their key, and only receive events that can be keyed.
+                if(Objects.isNull(keys))
+                    keys = new HashMap<>();
+                keys.computeIfAbsent(handler.key(), key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Handler[] handlers = count == 0 ? NONE : count == chain.length ? chain : Arrays.copyOf(chain, count);
+        if(Objects.isNull(keys))
+            return HandlerChain.of(event, handlers);
+
+        Map<Object, HandlerChain> keyed = new HashMap<>();
+        keys.forEach((key, indices) -> {
+            Handler[] keyHandlers = new Handler[indices.size()];
+            int[] keyPositions = new int[indices.size()];
+            for(int i = 0; i < keyHandlers.length; i++) {
+                keyPositions[i] = indices.get(i);
+                keyHandlers[i] = this.ordered[keyPositions[i]];
+            }
+            keyed.put(key, HandlerChain.of(event, keyHandlers, keyPositions, Collections.emptyMap()));
+        });
+        return HandlerChain.of(event, handlers, Arrays.copyOf(positions, count), keyed);
+    }
+
+    /**
+     * @param event The exact event type.
+     * @return The handlers registered for exactly the event type, sorted by priority. This array must not be modified.
+     */
+    Handler[] getHandlers(Class<? extends IEvent> event) {
+        Handler[] handlers = this.handlers.get(event);
+        return Objects.isNull(handlers) ? NONE : handlers;
+    }
+
+    /**
+     * @return An unmodifiable set of the event types with handlers.
+     */
+    Set<Class<? extends IEvent>> getEvents() {
+        return Collections.unmodifiableSet(this.handlers.keySet());
+    }
+
+    /**
+     * @param handler The handler to add.
+     * @return A new registry containing the handler.
+     */
+    HandlerRegistry register(Handler handler) {
+        Map<Class<? extends IEvent>, Handler[]> handlers = new HashMap<>(this.handlers);
+        handlers.put(handler.event(), insert(handlers.get(handler.event()), handler));
+        return new HandlerRegistry(handlers, insert(this.ordered, handler), invalidate(handler.event()));
+    }
+
+    /**
+     * @param handler The handler to remove.
+     * @return A new registry without the handler, or this registry if the handler was not registered.
+     */
+    HandlerRegistry unregister(Handler handler) {
+        Handler[] current = this.handlers.get(handler.event());
+        if(Objects.isNull(current))
+            return this;
+
+        Handler[] removed = remove(current, handler);
+        if(removed == current)
+            return this;
+
+        Map<Class<? extends IEvent>, Handler[]> handlers = new HashMap<>(this.handlers);
+        if(removed.length == 0) {
+            handlers.remove(handler.event());
+        } else {
+            handlers.put(handler.event(), removed);
+        }
+        return new HandlerRegistry(handlers, remove(this.ordered, handler), invalidate(handler.event()));
+    }
+
+    /**
+     * Add many handlers at once, rebuilding each affected chain only once.
+     * <br>The handlers are ordered as if they were registered one by one, in the order supplied.
+     * @param added The handlers to add.
+     * @return A new registry containing the handlers, or this registry if there are none.
+     */
+    HandlerRegistry register(List<Handler> added) {
+        if(added.isEmpty())
+            return this;
+
+        // A stable sort keeps the supplied order within each priority.
+        Handler[] sorted = added.toArray(new Handler[0]);
+        Arrays.sort(sorted, BY_PRIORITY);
+
+        Map<Class<? extends IEvent>, List<Handler>> byEvent = new HashMap<>();
+        for(Handler handler : sorted)
+            byEvent.computeIfAbsent(handler.event(), event -> new ArrayList<>()).add(handler);
+
+        Map<Class<? extends IEvent>, Handler[]> handlers = new HashMap<>(this.handlers);
+        byEvent.forEach((event, eventHandlers) -> handlers.put(event, merge(handlers.get(event), eventHandlers.toArray(new Handler[0]))));
+        return new HandlerRegistry(handlers, merge(this.ordered, sorted), invalidate(byEvent.keySet()));
+    }
+
+    /**
+     * @param filter The handlers to select.
+     * @return Every registered handler matching the filter, in dispatch order.
+     */
+    List<Handler> select(Predicate<Handler> filter) {
+        List<Handler> selected = new ArrayList<>();
+        for(Handler handler : this.ordered) {
+            if(filter.test(handler))
+                selected.add(handler);
+        }
+        return selected;
+    }
+
+    /**
+     * Remove many handlers at once, rebuilding each affected chain only once.
+     * <br>Handlers are matched by identity, so equal handlers registered by another owner, such as another scope, are kept.
+     * @param removed The handlers to remove.
+     * @return A new registry without the handlers, or this registry if none of them were registered.
+     */
+    HandlerRegistry unregister(Collection<Handler> removed) {
+        Set<Handler> remove = Collections.newSetFromMap(new IdentityHashMap<>());
+        remove.addAll(removed);
+        Set<Class<? extends IEvent>> events = new HashSet<>();
+        Handler[] ordered = new Handler[this.ordered.length];
+        int count = 0;
+        for(Handler handler : this.ordered) {
+            if(remove.contains(handler)) {
+                events.add(handler.event());
+            } else {
+                ordered[count++] = handler;
+            }
+        }
+
+        if(events.isEmpty())
+            return this;
+
+        Map<Class<? extends IEvent>, Handler[]> handlers = new HashMap<>(this.handlers);
+        for(Class<? extends IEvent> event : events) {
+            Handler[] remaining = Arrays.stream(handlers.get(event)).filter(handler -> !remove.contains(handler)).toArray(Handler[]::new);
+            if(remaining.length == 0) {
+                handlers.remove(event);
+            } else {
+                handlers.put(event, remaining);
+            }
+        }
+        return new HandlerRegistry(handlers, Arrays.copyOf(ordered, count), invalidate(events));
+    }
+
+    /**
+     * Copies the resolved chains which are unaffected by a change to an event type's handlers.
+     * @param event The event type that had handlers change.
+     * @return A new resolution cache, without any chain the event type is a part of.
+     */
+    private ConcurrentHashMap<Class<?>, HandlerChain> invalidate(Class<? extends IEvent> event) {
+        ConcurrentHashMap<Class<?>, HandlerChain> resolved = new ConcurrentHashMap<>(this.resolved);
+        resolved.keySet().removeIf(event::isAssignableFrom);
+        return resolved;
+    }
+
+    /**
+     * Copies the resolved chains which are unaffected by a change to several event types' handlers.
+     * @param events The event types that had handlers change.
+     * @return A new resolution cache, without any chain an event type is a part of.
+     */
+    private ConcurrentHashMap<Class<?>, HandlerChain> invalidate(Set<Class<? extends IEvent>> events) {
+        ConcurrentHashMap<Class<?>, HandlerChain> resolved = new ConcurrentHashMap<>(this.resolved);
+        resolved.keySet().removeIf(type -> events.stream().anyMatch(event -> event.isAssignableFrom(type)));
+        return resolved;
+    }
+
+    /**
+     * Merges two arrays sorted by priority.
+     * <br>Handlers of the same priority are kept after the current handlers, as if registered later.
+     * @param handlers The current handlers, or null if there are none.
+     * @param added The sorted handlers to add.
+     * @return A new array containing both.
+     */
+    private static Handler[] merge(Handler[] handlers, Handler[] added) {
+        if(Objects.isNull(handlers))
+            return added;
+
+        Handler[] merged = new Handler[handlers.length + added.length];
+        int i = 0, j = 0, k = 0;
+        while(i < handlers.length && j < added.length)
+            merged[k++] = handlers[i].priority().value >= added[j].priority().value ? handlers[i++] : added[j++];
+        while(i < handlers.length)
+            merged[k++] = handlers[i++];
+        while(j < added.length)
+            merged[k++] = added[j++];
+        return merged;
+    }
+
+    /**
+     * Creates a copy of the handlers with the new handler in its priority order.
+     * <br>Handlers of the same priority are kept in the order they were registered.
+     * @param handlers The current handlers, or null if there are none.
+     * @param handler The handler to insert.
+     * @return A new array containing the handler.
+     */
+    private static Handler[] insert(Handler[] handlers, Handler handler) {
+        if(Objects.isNull(handlers))
+            return new Handler[] {handler};
+
+        // The handlers are sorted, so we can binary search for the first handler with a lower priority.
+        // HIGHEST(5) < NORMAL(3) = false (Go right)
+        // NORMAL(3) < NORMAL(3) = false (Go right, to add the handler last when the priority is the same)
+        // LAST(0) < NORMAL(3) = true (Go left)
+        int low = 0;
+        int high = handlers.length;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(handlers[middle].priority().value < handler.priority().value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        Handler[] inserted = new Handler[handlers.length + 1];
+        System.arraycopy(handlers, 0, inserted, 0, low);
+        inserted[low] = handler;
+        System.arraycopy(handlers, low, inserted, low + 1, handlers.length - low);
+        return inserted;
+    }
+
+    /**
+     * Creates a copy of the handlers without the handler supplied.
+     * <br>The handler itself is removed if it is present, so an equal handler registered by another owner is kept.
+     * <br>Otherwise, the first equal handler is removed.
+     * @param handlers The current handlers.
+     * @param handler The handler to remove.
+     * @return A new array without the handler, or the same array if the handler was not present.
+     */
+    private static Handler[] remove(Handler[] handlers, Handler handler) {
+        int index = -1;
+        for(int i = 0; i < handlers.length; i++) {
+            if(handlers[i] == handler) {
+                index = i;
+                break;
+            }
+        }
+        for(int i = 0; index < 0 && i < handlers.length; i++) {
+            if(handlers[i].equals(handler))
+                index = i;
+        }
+
+        if(index < 0)
+            return handlers;
+
+        Handler[] removed = new Handler[handlers.length - 1];
+        System.arraycopy(handlers, 0, removed, 0, index);
+        System.arraycopy(handlers, index + 1, removed, index, handlers.length - index - 1);
+        return removed;
+    }
+
+}
@@ -6,9 +6,17 @@ import dev.westernpine.events.exception.ParameterListenerRegistrationException;
 import dev.westernpine.events.exception.StaticListenerRegistrationException;
 import dev.westernpine.events.handler.Handler;
 import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.event.IKeyed;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public interface IEventManager {
 
@@ -34,12 +42,94 @@ public interface IEventManager {
      */
     public Handler registerListener(Object instance, Method method);
 
+    /**
+     * Register a listener for an event, optionally holding its instance weakly.
+     * <br>
+     * <br>A weakly registered listener does not keep its instance alive, and is unregistered once the instance is collected.
+     *
+     * @param instance The instance of the class to invoke the listener with. Otherwise, null for static functions.
+     * @param method   The method of the class or class instance to invoke when the event is called.
+     * @param weak     Whether to hold the instance weakly. This is ignored for static functions.
+     * @return Handler An object containing required objects for ordering, calling, adding, and removing events.
+     * @see #registerListener(Object, Method)
+     */
+    public Handler registerListener(Object instance, Method method, boolean weak);
+
+    /**
+     * Register a listener for an event, which only receives {@link IKeyed} events with an equal key.
+     * <br>
+     * <br>Events are only dispatched to the keyed handlers for their key, alongside every unkeyed handler in the usual order.
+     * <br>The method must listen for an {@link IKeyed} event.
+     *
+     * @param instance The instance of the class to invoke the listener with. Otherwise, null for static functions.
+     * @param method   The method of the class or class instance to invoke when the event is called.
+     * @param key      The key of the events to receive.
+     * @return Handler An object containing required objects for ordering, calling, adding, and removing events.
+     * @see #registerListener(Object, Method)
+     */
+    public Handler registerKeyed(Object instance, Method method, Object key);
+
     /**
      * Unregisters the handler from the event listeners.
      * @param handler The handler object returned from registering the listener.
      */
     public void unregisterListener(Handler handler);
 
+    /**
+     * Register every non-static listener of an instance at once.
+     * <br>
+     * <br>Handlers are ordered as if each listener was registered one by one.
+     *
+     * @param instance The listener instance.
+     * @return The handlers registered.
+     */
+    public List<Handler> registerAll(Object instance);
+
+    /**
+     * Register every non-static listener of an instance at once, optionally holding the instance weakly.
+     * <br>
+     * <br>A weakly registered instance is not kept alive by its handlers, which are unregistered once it is collected.
+     *
+     * @param instance The listener instance.
+     * @param weak Whether to hold the instance weakly.
+     * @return The handlers registered.
+     */
+    public List<Handler> registerAll(Object instance, boolean weak);
+
+    /**
+     * Register every non-static listener of an instance at once, which only receive {@link IKeyed} events with an equal key.
+     * <br>Every listener must listen for an {@link IKeyed} event.
+     *
+     * @param instance The listener instance.
+     * @param key The key of the events to receive.
+     * @return The handlers registered.
+     */
+    public List<Handler> registerAllKeyed(Object instance, Object key);
+
+    /**
+     * Register every static listener of a class at once.
+     *
+     * @param clazz The listener class.
+     * @return The handlers registered.
+     */
+    public List<Handler> registerAll(Class<?> clazz);
+
+    /**
+     * Unregister every handler registered with an instance at once.
+     *
+     * @param instance The listener instance.
+     * @return The handlers unregistered.
+     */
+    public List<Handler> unregisterAll(Object instance);
+
+    /**
+     * Unregister every static handler of a class at once.
+     *
+     * @param clazz The listener class.
+     * @return The handlers unregistered.
+     */
+    public List<Handler> unregisterAll(Class<?> clazz);
+
     /**
      * Call all listeners listening to the event supplied.
      * <br>
@@ -50,4 +140,89 @@ public interface IEventManager {
      */
     public Map<Handler, Exception> call(IEvent event);
 
+    /**
+     * Check whether any listener would receive an event of this type.
+     * <br>
+     * <br>This includes listeners of every parent class and interface of the type, and keyed listeners of any key.
+     * <br>It is cheap enough to check before every call, to avoid building events nobody listens for.
+     *
+     * @param event The concrete event type.
+     * @return Whether the event type has listeners.
+     */
+    public boolean hasListeners(Class<? extends IEvent> event);
+
+    /**
+     * Call all listeners listening to the event type supplied, only creating the event if there are any.
+     *
+     * @param event The concrete event type.
+     * @param supplier Creates the event, which is only called when the event type has listeners.
+     * @return A map of all the handlers that had exceptions in their executions.
+     */
+    public default <E extends IEvent> Map<Handler, Exception> call(Class<E> event, Supplier<? extends E> supplier) {
+        if(!hasListeners(event))
+            return Collections.emptyMap();
+        return call(supplier.get());
+    }
+
+    /**
+     * Call all listeners listening to the event supplied, reporting exceptions to the sink supplied.
+     * <br>
+     * <br>Nothing is collected, so implementations can avoid allocating a result for every call.
+     *
+     * @param event Finds all functions listening to the specified event type.
+     * @param exceptions Accepts each handler that had an exception in its execution, and the exception.
+     */
+    public default void call(IEvent event, BiConsumer<Handler, Exception> exceptions) {
+        call(event).forEach(exceptions);
+    }
+
+    /**
+     * Call all listeners for each event in the batch, in the order the events are supplied.
+     * <br>
+     * <br>This is equivalent to calling each event, but lets the handler chain be resolved once for each event type in the batch.
+     *
+     * @param events The events to call.
+     * @return A map of the events that had exceptions, to the handlers that had exceptions in their executions.
+     */
+    public default Map<IEvent, Map<Handler, Exception>> callAll(Collection<? extends IEvent> events) {
+        return callAll(events, false);
+    }
+
+    /**
+     * Call all listeners for each event in the batch.
+     * <br>
+     * <br>In handler-major order, each handler processes every event of a type before the next handler runs.
+     * <br>Priority and cancellation still hold for each event, but handlers of different events interleave,
+     * <br>so this should only be used when the events are independent of each other.
+     *
+     * @param events The events to call.
+     * @param handlerMajor Whether to run each handler over the events, instead of each event through the handlers.
+     * @return A map of the events that had exceptions, to the handlers that had exceptions in their executions.
+     */
+    public Map<IEvent, Map<Handler, Exception>> callAll(Collection<? extends IEvent> events, boolean handlerMajor);
+
+    /**
+     * Call all listeners listening to the event supplied, without blocking the calling thread.
+     * <br>
+     * <br>The event is dispatched on the event manager's executor.
+     * <br>Handlers for a single event still run one after another, in priority order, and still respect cancellation.
+     *
+     * @param event Finds all functions listening to the specified event type.
+     * @return A future completed with a map of all the handlers that had exceptions in their executions.
+     */
+    public CompletableFuture<Map<Handler, Exception>> callAsync(IEvent event);
+
+    /**
+     * Call all listeners listening to the event supplied, on the executor supplied.
+     * <br>
+     * <br>Handlers for a single event still run one after another, in priority order, and still respect cancellation.
+     *
+     * @param event Finds all functions listening to the specified event type.
+     * @param executor The executor to dispatch the event on.
+     * @return A future completed with a map of all the handlers that had exceptions in their executions.
+     */
+    public default CompletableFuture<Map<Handler, Exception>> callAsync(IEvent event, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> call(event), executor);
+    }
+
 }
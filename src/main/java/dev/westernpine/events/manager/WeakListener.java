@@ -0,0 +1,62 @@
+package dev.westernpine.events.manager;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A weakly held listener instance, shared by every handler it was registered with.
+ * <br>
+ * <br>Collected instances are reclaimed by a single daemon thread, so neither calls nor registrations wait for it.
+ * <br>Every reference collected at once is unregistered from its event manager in a single registry update.
+ */
+final class WeakListener extends WeakReference<Object> {
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    static {
+        Thread.ofPlatform().daemon().name("events-reclaimer").start(WeakListener::reclaim);
+    }
+
+    private final DefaultEventManager manager;
+
+    /**
+     * The scope the listener was registered through, or null.
+     */
+    private final EventScope scope;
+
+    WeakListener(Object instance, DefaultEventManager manager, EventScope scope) {
+        super(instance, QUEUE);
+        this.manager = manager;
+        this.scope = scope;
+    }
+
+    EventScope getScope() {
+        return this.scope;
+    }
+
+    private static void reclaim() {
+        while(true) {
+            try {
+                Map<DefaultEventManager, Set<WeakListener>> collected = new HashMap<>();
+                Reference<?> reference = QUEUE.remove();
+                while(!Objects.isNull(reference)) {
+                    WeakListener listener = (WeakListener) reference;
+                    collected.computeIfAbsent(listener.manager, manager -> new HashSet<>()).add(listener);
+                    reference = QUEUE.poll();
+                }
+                collected.forEach(DefaultEventManager::reclaim);
+            } catch (InterruptedException ignored) {
+                // The reclaimer runs for the lifetime of the JVM.
+            } catch (RuntimeException exception) {
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), exception);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,266 @@
+package dev.westernpine.events.metrics;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records dispatch counts, latencies, cancellations and exceptions for an event manager.
+ * <br>
+ * <br>Metrics are only recorded while attached to an event manager, and all recording is thread-safe.
+ * <br>Handlers are tracked from their registration until they are unregistered, and are never recorded outside of it.
+ * <br>They can be read through {@link #snapshot()}, or through JMX once {@link #registerMBean(String)} is called.
+ */
+public class DispatchMetrics implements DispatchMetricsMXBean {
+
+    private final ConcurrentHashMap<Class<? extends IEvent>, EventRecorder> events = new ConcurrentHashMap<>();
+
+    /**
+     * The recorder of each handler, by identity, so equal handlers are recorded apart, and a lookup never hashes the handler's listener.
+     * <br>Published maps are never modified. Registering and unregistering handlers copies the map under the lock instead.
+     */
+    private volatile Map<Handler, HandlerRecorder> handlers = new IdentityHashMap<>();
+
+    private final Object lock = new Object();
+
+    private volatile ObjectName objectName;
+
+    private static final class EventRecorder {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder canceled = new LongAdder();
+        private final LongAdder exceptions = new LongAdder();
+    }
+
+    private static final class HandlerRecorder {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder exceptions = new LongAdder();
+    }
+
+    /**
+     * Record the dispatch of an event.
+     * @param event The concrete event type.
+     * @param nanos The time taken to run the event's handlers.
+     * @param canceled Whether the event ended canceled.
+     * @param exceptions The number of handlers that threw.
+     */
+    public void recordEvent(Class<? extends IEvent> event, long nanos, boolean canceled, int exceptions) {
+        EventRecorder recorder = this.events.get(event);
+        if(Objects.isNull(recorder))
+            recorder = this.events.computeIfAbsent(event, key -> new EventRecorder());
+
+        recorder.latency.record(nanos);
+        if(canceled)
+            recorder.canceled.increment();
+        if(exceptions > 0)
+            recorder.exceptions.add(exceptions);
+    }
+
+    /**
+     * Record the invocation of a handler.
+     * @param handler The handler.
+     * @param nanos The time taken by the handler.
+     * @param failed Whether the handler threw.
+     */
+    public void recordHandler(Handler handler, long nanos, boolean failed) {
+        HandlerRecorder recorder = this.handlers.get(handler);
+        if(Objects.isNull(recorder))
+            return; // Unregistered, possibly during its own invocation.
+
+        recorder.latency.record(nanos);
+        if(failed)
+            recorder.exceptions.increment();
+    }
+
+    /**
+     * Start recording the metrics of handlers, once they are registered.
+     * @param handlers The handlers.
+     */
+    public void addHandlers(Collection<Handler> handlers) {
+        synchronized (this.lock) {
+            Map<Handler, HandlerRecorder> recorders = new IdentityHashMap<>(this.handlers);
+            for(Handler handler : handlers)
+                recorders.putIfAbsent(handler, new HandlerRecorder());
+            this.handlers = recorders;
+        }
+    }
+
+    /**
+     * Forget the metrics of handlers, once they are unregistered.
+     * @param handlers The handlers.
+     */
+    public void removeHandlers(Collection<Handler> handlers) {
+        synchronized (this.lock) {
+            Map<Handler, HandlerRecorder> recorders = new IdentityHashMap<>(this.handlers);
+            for(Handler handler : handlers)
+                recorders.remove(handler);
+            this.handlers = recorders;
+        }
+    }
+
+    /**
+     * @return A point-in-time copy of the metrics.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<Class<? extends IEvent>, EventMetrics> events = new HashMap<>();
+        this.events.forEach((event, recorder) -> events.put(event, new EventMetrics(event, recorder.canceled.sum(), recorder.exceptions.sum(), recorder.latency.snapshot())));
+
+        Map<Handler, HandlerMetrics> handlers = new IdentityHashMap<>();
+        this.handlers.forEach((handler, recorder) -> handlers.put(handler, new HandlerMetrics(handler, recorder.exceptions.sum(), recorder.latency.snapshot())));
+
+        return new MetricsSnapshot(Map.copyOf(events), Collections.unmodifiableMap(handlers));
+    }
+
+    /**
+     * Clear all recorded metrics.
+     */
+    @Override
+    public void reset() {
+        this.events.clear();
+        synchronized (this.lock) {
+            Map<Handler, HandlerRecorder> handlers = new IdentityHashMap<>();
+            this.handlers.keySet().forEach(handler -> handlers.put(handler, new HandlerRecorder()));
+            this.handlers = handlers;
+        }
+    }
+
+    /**
+     * Register these metrics with the platform MBean server.
+     * @param name The name to distinguish this event manager's metrics by.
+     * @return The object name the metrics were registered as.
+     * @throws IllegalStateException When the metrics could not be registered.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("dev.westernpine.events:type=DispatchMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+            return objectName;
+        } catch (JMException exception) {
+            throw new IllegalStateException("Unable to register dispatch metrics %s.".formatted(name), exception);
+        }
+    }
+
+    /**
+     * Unregister these metrics from the platform MBean server, if they were registered.
+     */
+    public void unregisterMBean() {
+        ObjectName objectName = this.objectName;
+        if(Objects.isNull(objectName))
+            return;
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if(server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+        } catch (JMException exception) {
+            throw new IllegalStateException("Unable to unregister dispatch metrics %s.".formatted(objectName), exception);
+        } finally {
+            this.objectName = null;
+        }
+    }
+
+    @Override
+    public Map<String, Long> getDispatchCounts() {
+        return eventValues(metrics -> metrics.dispatches());
+    }
+
+    @Override
+    public Map<String, Long> getCancellationCounts() {
+        return eventValues(EventMetrics::canceled);
+    }
+
+    @Override
+    public Map<String, Long> getExceptionCounts() {
+        return eventValues(EventMetrics::exceptions);
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencyMicros() {
+        return eventMicros(metrics -> metrics.latency().meanNanos());
+    }
+
+    @Override
+    public Map<String, Double> getP99LatencyMicros() {
+        return eventMicros(metrics -> metrics.latency().percentileNanos(0.99));
+    }
+
+    @Override
+    public Map<String, Double> getMaxLatencyMicros() {
+        return eventMicros(metrics -> metrics.latency().maxNanos());
+    }
+
+    @Override
+    public Map<String, Long> getHandlerInvocationCounts() {
+        return handlerValues(HandlerMetrics::invocations);
+    }
+
+    @Override
+    public Map<String, Long> getHandlerExceptionCounts() {
+        return handlerValues(HandlerMetrics::exceptions);
+    }
+
+    @Override
+    public Map<String, Double> getHandlerMeanMicros() {
+        return handlerDoubles(metrics -> metrics.latency().meanNanos() / 1_000D);
+    }
+
+    @Override
+    public Map<String, Double> getHandlerMaxMicros() {
+        return handlerDoubles(metrics -> metrics.latency().maxNanos() / 1_000D);
+    }
+
+    @Override
+    public Map<String, Double> getHandlerTotalMillis() {
+        return handlerDoubles(metrics -> metrics.latency().totalNanos() / 1_000_000D);
+    }
+
+    /**
+     * @param handler The handler to describe.
+     * @return A readable and unique name for the handler, of its listener class, method and instance.
+     */
+    public static String describe(Handler handler) {
+        String name = handler.method().getDeclaringClass().getName() + "#" + handler.method().getName() + "(" + handler.event().getSimpleName() + ")";
+        Object instance = handler.target();
+        return Objects.isNull(instance) ? name : name + "@" + Integer.toHexString(System.identityHashCode(instance));
+    }
+
+    private Map<String, Long> eventValues(ToLongFunction<EventMetrics> value) {
+        return collect(snapshot().events().values(), metrics -> metrics.event().getName(), metrics -> value.applyAsLong(metrics));
+    }
+
+    private Map<String, Double> eventMicros(ToDoubleFunction<EventMetrics> nanos) {
+        return collect(snapshot().events().values(), metrics -> metrics.event().getName(), metrics -> nanos.applyAsDouble(metrics) / 1_000D);
+    }
+
+    private Map<String, Long> handlerValues(ToLongFunction<HandlerMetrics> value) {
+        return collect(snapshot().handlers().values(), metrics -> describe(metrics.handler()), metrics -> value.applyAsLong(metrics));
+    }
+
+    private Map<String, Double> handlerDoubles(ToDoubleFunction<HandlerMetrics> value) {
+        return collect(snapshot().handlers().values(), metrics -> describe(metrics.handler()), metrics -> value.applyAsDouble(metrics));
+    }
+
+    private static <T, V> Map<String, V> collect(Iterable<T> metrics, Function<T, String> key, Function<T, V> value) {
+        Map<String, V> values = new TreeMap<>();
+        for(T metric : metrics)
+            values.put(key.apply(metric), value.apply(metric));
+        return values;
+    }
+
+}
@@ -0,0 +1,36 @@
+package dev.westernpine.events.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link DispatchMetrics}.
+ * <br>
+ * <br>Event types are keyed by class name, and handlers by their listener class, method and instance.
+ */
+public interface DispatchMetricsMXBean {
+
+    public Map<String, Long> getDispatchCounts();
+
+    public Map<String, Long> getCancellationCounts();
+
+    public Map<String, Long> getExceptionCounts();
+
+    public Map<String, Double> getMeanLatencyMicros();
+
+    public Map<String, Double> getP99LatencyMicros();
+
+    public Map<String, Double> getMaxLatencyMicros();
+
+    public Map<String, Long> getHandlerInvocationCounts();
+
+    public Map<String, Long> getHandlerExceptionCounts();
+
+    public Map<String, Double> getHandlerMeanMicros();
+
+    public Map<String, Double> getHandlerMaxMicros();
+
+    public Map<String, Double> getHandlerTotalMillis();
+
+    public void reset();
+
+}
@@ -0,0 +1,22 @@
+package dev.westernpine.events.metrics;
+
+import dev.westernpine.events.event.IEvent;
+
+/**
+ * Dispatch metrics for a concrete event type.
+ *
+ * @param event The event type.
+ * @param canceled The number of dispatches where the event ended canceled.
+ * @param exceptions The number of exceptions thrown by handlers for the event.
+ * @param latency The time taken by each dispatch, which also holds the number of dispatches.
+ */
+public record EventMetrics(Class<? extends IEvent> event, long canceled, long exceptions, LatencySnapshot latency) {
+
+    /**
+     * @return The number of times the event type was dispatched.
+     */
+    public long dispatches() {
+        return this.latency.count();
+    }
+
+}
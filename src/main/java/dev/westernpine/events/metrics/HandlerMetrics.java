@@ -0,0 +1,21 @@
+package dev.westernpine.events.metrics;
+
+import dev.westernpine.events.handler.Handler;
+
+/**
+ * Invocation metrics for a handler.
+ *
+ * @param handler The handler.
+ * @param exceptions The number of exceptions thrown by the handler.
+ * @param latency The time taken by each invocation, which also holds the number of invocations.
+ */
+public record HandlerMetrics(Handler handler, long exceptions, LatencySnapshot latency) {
+
+    /**
+     * @return The number of times the handler was invoked.
+     */
+    public long invocations() {
+        return this.latency.count();
+    }
+
+}
@@ -0,0 +1,51 @@
+package dev.westernpine.events.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power-of-two nanosecond buckets.
+ * <br>
+ * <br>Bucket {@code i} counts latencies below {@code 2^i} nanoseconds, and at least {@code 2^(i-1)}.
+ * <br>This keeps recording to a few atomic increments, at the cost of percentiles only being accurate to within a factor of 2.
+ */
+public class LatencyHistogram {
+
+    static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder total = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos The latency to record, in nanoseconds.
+     */
+    public void record(long nanos) {
+        if(nanos < 0)
+            nanos = 0;
+
+        this.buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+        this.total.add(nanos);
+
+        long max = this.max.get();
+        while(nanos > max && !this.max.compareAndSet(max, nanos))
+            max = this.max.get();
+    }
+
+    /**
+     * @return A point-in-time copy of the histogram.
+     */
+    public LatencySnapshot snapshot() {
+        long count = 0;
+        long[] buckets = new long[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++) {
+            buckets[i] = this.buckets.get(i);
+            count += buckets[i];
+        }
+        return new LatencySnapshot(count, this.total.sum(), this.max.get(), buckets);
+    }
+
+}
@@ -0,0 +1,39 @@
+package dev.westernpine.events.metrics;
+
+/**
+ * A point-in-time copy of a {@link LatencyHistogram}.
+ *
+ * @param count The number of latencies recorded.
+ * @param totalNanos The sum of all latencies recorded, in nanoseconds.
+ * @param maxNanos The highest latency recorded, in nanoseconds.
+ * @param buckets The power-of-two bucket counts, where bucket {@code i} counts latencies below {@code 2^i} nanoseconds.
+ */
+public record LatencySnapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+
+    /**
+     * @return The mean latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double meanNanos() {
+        return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+    }
+
+    /**
+     * Get an upper bound for a latency percentile.
+     * @param percentile The percentile, between 0 and 1. (E.g. 0.99)
+     * @return The upper bound of the bucket the percentile falls in, in nanoseconds, capped to the highest latency recorded.
+     */
+    public long percentileNanos(double percentile) {
+        if(this.count == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(percentile * this.count);
+        long seen = 0;
+        for(int i = 0; i < this.buckets.length; i++) {
+            seen += this.buckets[i];
+            if(seen >= rank)
+                return Math.min(this.maxNanos, i == 0 ? 0 : 1L << Math.min(62, i));
+        }
+        return this.maxNanos;
+    }
+
+}
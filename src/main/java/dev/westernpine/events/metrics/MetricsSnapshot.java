@@ -0,0 +1,30 @@
+package dev.westernpine.events.metrics;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A point-in-time copy of the metrics recorded by {@link DispatchMetrics}.
+ *
+ * @param events The metrics of each event type that was dispatched.
+ * @param handlers The metrics of each handler that was invoked, by identity.
+ */
+public record MetricsSnapshot(Map<Class<? extends IEvent>, EventMetrics> events, Map<Handler, HandlerMetrics> handlers) {
+
+    /**
+     * Get the handlers that took the most time in total, which are the first candidates when dispatching is slow.
+     * @param limit The maximum number of handlers to return.
+     * @return The handlers, slowest first.
+     */
+    public List<HandlerMetrics> slowestHandlers(int limit) {
+        return this.handlers.values().stream()
+                .sorted(Comparator.comparingLong((HandlerMetrics metrics) -> metrics.latency().totalNanos()).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+}
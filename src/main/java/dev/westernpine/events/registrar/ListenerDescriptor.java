@@ -0,0 +1,15 @@
+package dev.westernpine.events.registrar;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.HandlerInvoker;
+
+/**
+ * A compile-time validated {@code EventHandler} method.
+ *
+ * @param declaringClass The class declaring the method.
+ * @param method The name of the method.
+ * @param event The event type the method listens for, which is its only parameter.
+ * @param isStatic Whether the method is static.
+ * @param invoker A direct invoker for the method.
+ */
+public record ListenerDescriptor(Class<?> declaringClass, String method, Class<? extends IEvent> event, boolean isStatic, HandlerInvoker invoker) {}
@@ -0,0 +1,23 @@
+package dev.westernpine.events.registrar;
+
+import java.util.List;
+
+/**
+ * Registration code generated at compile time for a listener class, by the Events annotation processor.
+ * <br>
+ * <br>Registrars are named after their listener class with a {@code $$EventRegistrar} suffix, and live in the same package.
+ * <br>When one exists, listeners are discovered and invoked through it instead of through reflection.
+ */
+public interface ListenerRegistrar {
+
+    /**
+     * The suffix appended to a listener class's binary name to find its registrar.
+     */
+    public static final String SUFFIX = "$$EventRegistrar";
+
+    /**
+     * @return Every public {@code EventHandler} method of the listener class, including inherited ones. These are already validated.
+     */
+    public List<ListenerDescriptor> getListeners();
+
+}
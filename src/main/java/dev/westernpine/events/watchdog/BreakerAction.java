@@ -0,0 +1,19 @@
+package dev.westernpine.events.watchdog;
+
+/**
+ * What happens to a handler while its circuit breaker is tripped.
+ */
+public enum BreakerAction {
+
+    /**
+     * The handler is skipped.
+     */
+    DISABLE,
+
+    /**
+     * The handler is handed to the event manager's executor, so callers no longer wait for it.
+     * <br>Its exceptions go to the event manager's exception handler instead of the call result.
+     */
+    DEMOTE
+
+}
@@ -0,0 +1,11 @@
+package dev.westernpine.events.watchdog;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+
+/**
+ * Called when a tripped handler completes within its budget after its cooldown, and is run as usual again.
+ *
+ * @param handler The handler.
+ */
+public record HandlerResetEvent(Handler handler) implements IEvent {}
@@ -0,0 +1,15 @@
+package dev.westernpine.events.watchdog;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.Handler;
+
+/**
+ * Called when a handler's circuit breaker trips, after too many overruns or exceptions in a row.
+ *
+ * @param handler The handler.
+ * @param action What happens to the handler until it is reset.
+ * @param nanos The time taken by the invocation which tripped the breaker.
+ * @param failed Whether the invocation which tripped the breaker threw, instead of overrunning its budget.
+ * @param cooldownNanos How long until the handler is tried again.
+ */
+public record HandlerTrippedEvent(Handler handler, BreakerAction action, long nanos, boolean failed, long cooldownNanos) implements IEvent {}
@@ -0,0 +1,205 @@
+package dev.westernpine.events.watchdog;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times handlers against a budget, and trips a circuit breaker for handlers which repeatedly overrun it or throw.
+ * <br>
+ * <br>Each handler's budget is its {@link EventHandler#budgetMicros()}, or the watchdog's default budget when unset.
+ * <br>Once a handler overruns its budget or throws too many times in a row, its breaker trips,
+ * <br>and the handler is disabled or demoted to asynchronous execution, as set by the {@link BreakerAction}.
+ * <br>After the cooldown, the handler runs as usual again on trial: completing within budget resets the breaker,
+ * <br>while a single overrun or exception trips it again.
+ * <br>
+ * <br>Overruns are detected from the time each invocation took, so watching only costs a clock read around each handler.
+ * <br>Tripping and resetting calls a {@link HandlerTrippedEvent} or {@link HandlerResetEvent} through the event manager.
+ */
+public class HandlerWatchdog {
+
+    private final long budgetNanos;
+
+    private final int threshold;
+
+    private final long cooldownNanos;
+
+    private final BreakerAction action;
+
+    /**
+     * The breaker of each handler, by identity, so equal handlers trip apart, and a lookup never hashes the handler's listener.
+     * <br>Published maps are never modified. Registering and unregistering handlers copies the map under the lock instead.
+     */
+    private volatile Map<Handler, Breaker> breakers = new IdentityHashMap<>();
+
+    private final Object lock = new Object();
+
+    private static final class Breaker {
+        private final long budgetNanos;
+
+        // Written under the breaker's lock, but read without it by the common case of recording.
+        private volatile int strikes;
+        private volatile boolean trial;
+
+        /**
+         * When the breaker can be tried again, or 0 while it is not tripped.
+         */
+        private volatile long trippedUntil;
+
+        private Breaker(long budgetNanos) {
+            this.budgetNanos = budgetNanos;
+        }
+    }
+
+    /**
+     * Creates a new handler watchdog.
+     * @param budget The default time budget of each handler.
+     * @param threshold How many overruns or exceptions in a row trip a handler's breaker.
+     * @param cooldown How long a tripped handler stays tripped before it is tried again.
+     * @param action What happens to a handler while it is tripped.
+     */
+    public HandlerWatchdog(Duration budget, int threshold, Duration cooldown, BreakerAction action) {
+        if(threshold < 1)
+            throw new IllegalArgumentException("Threshold must be positive: %d".formatted(threshold));
+
+        this.budgetNanos = budget.toNanos();
+        this.threshold = threshold;
+        this.cooldownNanos = cooldown.toNanos();
+        this.action = Objects.requireNonNull(action, "action");
+        if(this.budgetNanos <= 0)
+            throw new IllegalArgumentException("Budget must be positive: %s".formatted(budget));
+    }
+
+    private long budget(Handler handler) {
+        EventHandler eventHandler = handler.method().getAnnotation(EventHandler.class);
+        if(!Objects.isNull(eventHandler) && eventHandler.budgetMicros() > 0)
+            return TimeUnit.MICROSECONDS.toNanos(eventHandler.budgetMicros());
+        return this.budgetNanos;
+    }
+
+    /**
+     * @param handler The handler.
+     * @return The time budget of the handler, in nanoseconds.
+     */
+    public long getBudgetNanos(Handler handler) {
+        Breaker breaker = this.breakers.get(handler);
+        return Objects.isNull(breaker) ? budget(handler) : breaker.budgetNanos;
+    }
+
+    /**
+     * @return What happens to a handler while it is tripped.
+     */
+    public BreakerAction getAction() {
+        return this.action;
+    }
+
+    /**
+     * Check whether a handler should be run as usual.
+     * <br>Once a tripped handler's cooldown has passed, this lets it run again on trial.
+     * @param handler The handler.
+     * @param now The current {@link System#nanoTime()}.
+     * @return Whether the handler's breaker is tripped.
+     */
+    public boolean isTripped(Handler handler, long now) {
+        Breaker breaker = this.breakers.get(handler);
+        if(Objects.isNull(breaker))
+            return false; // Unregistered, so there is nothing to trip.
+        long trippedUntil = breaker.trippedUntil;
+        if(trippedUntil == 0)
+            return false;
+
+        synchronized (breaker) {
+            if(breaker.trippedUntil == 0)
+                return false;
+            if(now - breaker.trippedUntil < 0)
+                return true;
+
+            breaker.trippedUntil = 0;
+            breaker.trial = true;
+            return false;
+        }
+    }
+
+    /**
+     * Record an invocation of a handler which was run as usual.
+     * @param handler The handler.
+     * @param nanos The time taken by the handler.
+     * @param failed Whether the handler threw.
+     * @param now The current {@link System#nanoTime()}.
+     * @return The event to call if this tripped or reset the handler's breaker, otherwise null.
+     */
+    public IEvent record(Handler handler, long nanos, boolean failed, long now) {
+        Breaker breaker = this.breakers.get(handler);
+        if(Objects.isNull(breaker))
+            return null; // Unregistered, possibly during its own invocation.
+
+        boolean strike = failed || nanos > breaker.budgetNanos;
+        if(!strike && breaker.strikes == 0 && !breaker.trial)
+            return null; // The common case, which never locks.
+
+        synchronized (breaker) {
+            if(!strike) {
+                breaker.strikes = 0;
+                if(!breaker.trial)
+                    return null;
+                breaker.trial = false;
+                return new HandlerResetEvent(handler);
+            }
+
+            if(breaker.trippedUntil != 0)
+                return null; // Another thread already tripped it.
+
+            breaker.strikes++;
+            if(!breaker.trial && breaker.strikes < this.threshold)
+                return null;
+
+            breaker.strikes = 0;
+            breaker.trial = false;
+            breaker.trippedUntil = (now + this.cooldownNanos) | 1; // Never 0, which means not tripped.
+            return new HandlerTrippedEvent(handler, this.action, nanos, failed, this.cooldownNanos);
+        }
+    }
+
+    /**
+     * @param handler The handler.
+     * @return Whether the handler's breaker is currently tripped, without trying it again.
+     */
+    public boolean isTripped(Handler handler) {
+        Breaker breaker = this.breakers.get(handler);
+        return !Objects.isNull(breaker) && breaker.trippedUntil != 0;
+    }
+
+    /**
+     * Start watching handlers, once they are registered.
+     * @param handlers The handlers.
+     */
+    public void addHandlers(Collection<Handler> handlers) {
+        synchronized (this.lock) {
+            Map<Handler, Breaker> breakers = new IdentityHashMap<>(this.breakers);
+            for(Handler handler : handlers)
+                breakers.putIfAbsent(handler, new Breaker(budget(handler)));
+            this.breakers = breakers;
+        }
+    }
+
+    /**
+     * Forget the state of handlers, once they are unregistered.
+     * @param handlers The handlers.
+     */
+    public void removeHandlers(Collection<Handler> handlers) {
+        synchronized (this.lock) {
+            Map<Handler, Breaker> breakers = new IdentityHashMap<>(this.breakers);
+            for(Handler handler : handlers)
+                breakers.remove(handler);
+            this.breakers = breakers;
+        }
+    }
+
+}
@@ -0,0 +1,217 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class BoundedEventDispatcherTest {
+
+    private final DefaultEventManager eventManager = new DefaultEventManager(false);
+
+    private final QueueListenerTest listener = new QueueListenerTest();
+
+    /**
+     * Queued drains only run when the test runs them.
+     */
+    private final List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+
+    public BoundedEventDispatcherTest() {
+        this.eventManager.registerAll(this.listener);
+    }
+
+    private BoundedEventDispatcher dispatcher(int capacity, OverflowPolicy policy) {
+        return new BoundedEventDispatcher(this.eventManager, this.tasks::add, capacity, policy, (handler, exception) -> Assertions.fail(exception));
+    }
+
+    private void runTasks() {
+        List<Runnable> tasks;
+        synchronized (this.tasks) {
+            tasks = new ArrayList<>(this.tasks);
+            this.tasks.clear();
+        }
+        tasks.forEach(Runnable::run);
+    }
+
+    @org.junit.jupiter.api.Test
+    void dropNewest() {
+        BoundedEventDispatcher dispatcher = dispatcher(2, OverflowPolicy.DROP_NEWEST);
+        Assertions.assertTrue(dispatcher.submit(new QueueEventTest(1)));
+        Assertions.assertTrue(dispatcher.submit(new QueueEventTest(2)));
+        Assertions.assertFalse(dispatcher.submit(new QueueEventTest(3)));
+        Assertions.assertEquals(2, dispatcher.getDepth());
+        Assertions.assertEquals(1, dispatcher.getDropped());
+        Assertions.assertEquals(1, this.tasks.size());
+
+        runTasks();
+        Assertions.assertEquals(List.of(1, 2), this.listener.values);
+        Assertions.assertEquals(0, dispatcher.getDepth());
+    }
+
+    @org.junit.jupiter.api.Test
+    void dropOldest() {
+        BoundedEventDispatcher dispatcher = dispatcher(2, OverflowPolicy.DROP_OLDEST);
+        for(int i = 1; i <= 4; i++)
+            Assertions.assertTrue(dispatcher.submit(new QueueEventTest(i)));
+        Assertions.assertEquals(2, dispatcher.getDropped());
+
+        runTasks();
+        Assertions.assertEquals(List.of(3, 4), this.listener.values);
+    }
+
+    @org.junit.jupiter.api.Test
+    void callerRuns() {
+        BoundedEventDispatcher dispatcher = dispatcher(1, OverflowPolicy.CALLER_RUNS);
+        dispatcher.submit(new QueueEventTest(1));
+        dispatcher.submit(new QueueEventTest(2));
+        Assertions.assertEquals(List.of(2), this.listener.values);
+
+        runTasks();
+        Assertions.assertEquals(List.of(2, 1), this.listener.values);
+        Assertions.assertEquals(0, dispatcher.getDropped());
+    }
+
+    @org.junit.jupiter.api.Test
+    void coalesce() {
+        BoundedEventDispatcher dispatcher = dispatcher(2, OverflowPolicy.COALESCE);
+        dispatcher.submit(new QueueEventTest(1));
+        dispatcher.submit(new OtherQueueEventTest());
+        Assertions.assertTrue(dispatcher.submit(new QueueEventTest(2)));
+        Assertions.assertTrue(dispatcher.submit(new QueueEventTest(3)));
+        Assertions.assertEquals(2, dispatcher.getReplaced());
+
+        runTasks();
+        Assertions.assertEquals(List.of(3), this.listener.values);
+        Assertions.assertEquals(1, this.listener.others);
+    }
+
+    @org.junit.jupiter.api.Test
+    void block() throws InterruptedException {
+        BoundedEventDispatcher dispatcher = dispatcher(1, OverflowPolicy.BLOCK);
+        dispatcher.submit(new QueueEventTest(1));
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = Thread.ofPlatform().start(() -> {
+            dispatcher.submit(new QueueEventTest(2));
+            submitted.countDown();
+        });
+        Assertions.assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+
+        // Draining makes room, which releases the producer.
+        runTasks();
+        Assertions.assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        producer.join();
+        runTasks();
+        Assertions.assertEquals(List.of(1, 2), this.listener.values);
+    }
+
+    @org.junit.jupiter.api.Test
+    void setCapacity() {
+        BoundedEventDispatcher dispatcher = dispatcher(1, OverflowPolicy.DROP_NEWEST);
+        dispatcher.setCapacity(QueueEventTest.class, 3, OverflowPolicy.DROP_OLDEST);
+        Assertions.assertEquals(3, dispatcher.getCapacity(QueueEventTest.class));
+        Assertions.assertEquals(OverflowPolicy.DROP_NEWEST, dispatcher.getPolicy(OtherQueueEventTest.class));
+
+        for(int i = 1; i <= 3; i++)
+            Assertions.assertTrue(dispatcher.submit(new QueueEventTest(i)));
+        Assertions.assertTrue(dispatcher.submit(new OtherQueueEventTest()));
+        Assertions.assertFalse(dispatcher.submit(new OtherQueueEventTest()));
+        Assertions.assertEquals(3, dispatcher.getDepth(QueueEventTest.class));
+        Assertions.assertEquals(4, dispatcher.getDepth());
+        Assertions.assertEquals(0, dispatcher.getDropped(QueueEventTest.class));
+        Assertions.assertEquals(1, dispatcher.getDropped(OtherQueueEventTest.class));
+    }
+
+    @org.junit.jupiter.api.Test
+    void setCapacityOfInterface() {
+        BoundedEventDispatcher dispatcher = dispatcher(1, OverflowPolicy.DROP_NEWEST);
+        dispatcher.setCapacity(MarkedQueueEventTest.class, 2, OverflowPolicy.DROP_OLDEST);
+
+        // Events implementing the interface use its queue, like the manager delivers them to its handlers.
+        Assertions.assertEquals(2, dispatcher.getCapacity(MarkedEventTest.class));
+        Assertions.assertEquals(1, dispatcher.getCapacity(QueueEventTest.class));
+
+        // A nearer supertype's queue is used instead, even when configured after the event's queue was resolved.
+        dispatcher.setCapacity(MarkedEventTest.class, 3, OverflowPolicy.DROP_OLDEST);
+        Assertions.assertEquals(3, dispatcher.getCapacity(MarkedEventTest.class));
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedCall() {
+        this.eventManager.registerAll(new FailingQueueListenerTest());
+        List<Exception> failures = new ArrayList<>();
+        BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(this.eventManager, this.tasks::add, 2, OverflowPolicy.BLOCK, (handler, exception) -> {
+            failures.add(exception);
+            if(!Objects.isNull(handler))
+                throw new IllegalStateException(exception);
+        });
+        dispatcher.submit(new FailingQueueEventTest());
+        dispatcher.submit(new QueueEventTest(1));
+
+        // The rethrown exception fails the whole call, which is reported without stopping the queue.
+        runTasks();
+        Assertions.assertEquals(List.of(1), this.listener.values);
+        Assertions.assertEquals(2, failures.size());
+        Assertions.assertInstanceOf(IllegalStateException.class, failures.get(1));
+
+        // The queue can still be scheduled.
+        dispatcher.submit(new QueueEventTest(2));
+        Assertions.assertEquals(1, this.tasks.size());
+        runTasks();
+        Assertions.assertEquals(List.of(1, 2), this.listener.values);
+    }
+
+}
+
+class QueueListenerTest {
+
+    public final List<Integer> values = new ArrayList<>();
+    public int others;
+
+    @EventHandler
+    public void QueueListener(QueueEventTest event) {
+        values.add(event.value);
+    }
+
+    @EventHandler
+    public void OtherQueueListener(OtherQueueEventTest event) {
+        others++;
+    }
+
+}
+
+class FailingQueueListenerTest {
+
+    @EventHandler
+    public void FailingQueueListener(FailingQueueEventTest event) {
+        throw new IllegalStateException("Listener failure.");
+    }
+
+}
+
+class FailingQueueEventTest implements IEvent {
+}
+
+class QueueEventTest implements IEvent {
+    public final int value;
+
+    public QueueEventTest(int value) {
+        this.value = value;
+    }
+}
+
+class OtherQueueEventTest implements IEvent {
+}
+
+interface MarkedQueueEventTest extends IEvent {
+}
+
+class MarkedEventTest implements MarkedQueueEventTest {
+}
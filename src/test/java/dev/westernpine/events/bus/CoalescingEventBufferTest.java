@@ -0,0 +1,160 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.ICancellable;
+import dev.westernpine.events.event.ICoalescing;
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Priority;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+class CoalescingEventBufferTest {
+
+    @org.junit.jupiter.api.Test
+    void flush() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        MoveListenerTest listener = new MoveListenerTest();
+        eventManager.registerAll(listener);
+
+        CoalescingEventBuffer buffer = new CoalescingEventBuffer(eventManager, (handler, exception) -> Assertions.fail(exception));
+        for(int i = 0; i < 50; i++) {
+            buffer.add(new MoveEventTest("a", 1));
+            buffer.add(new MoveEventTest("b", 2));
+        }
+        buffer.add(new MoveEventTest("c", 0)); // Canceled by a handler, so the later handler does not see it.
+        Assertions.assertEquals(3, buffer.size());
+        Assertions.assertEquals(98, buffer.getCoalesced());
+
+        Assertions.assertEquals(3, buffer.flush());
+        Assertions.assertEquals(List.of("a:50", "b:100"), listener.moves);
+        Assertions.assertEquals(0, buffer.size());
+        Assertions.assertEquals(0, buffer.flush());
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedFlush() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        MoveListenerTest listener = new MoveListenerTest();
+        eventManager.registerAll(listener);
+        eventManager.registerAll(new FailingMoveListenerTest());
+
+        List<Exception> failures = new ArrayList<>();
+        CoalescingEventBuffer buffer = new CoalescingEventBuffer(eventManager, (handler, exception) -> {
+            failures.add(exception);
+            if(!Objects.isNull(handler))
+                throw new IllegalStateException(exception);
+        });
+        buffer.add(new MoveEventTest("a", -1));
+        buffer.add(new MoveEventTest("b", 1));
+
+        // The rethrown exception fails the first call, but the flush still calls the events after it.
+        Assertions.assertEquals(2, buffer.flush());
+        Assertions.assertEquals(List.of("b:1"), listener.moves);
+        Assertions.assertEquals(2, failures.size());
+        Assertions.assertEquals(0, buffer.size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void nullCoalesce() {
+        CoalescingEventBuffer buffer = new CoalescingEventBuffer(new DefaultEventManager(false), (handler, exception) -> Assertions.fail(exception));
+        Assertions.assertTrue(buffer.add(new NullCoalescingEventTest()));
+        Assertions.assertThrows(NullPointerException.class, () -> buffer.add(new NullCoalescingEventTest()));
+        Assertions.assertEquals(1, buffer.size());
+        Assertions.assertEquals(1, buffer.flush());
+    }
+
+    @org.junit.jupiter.api.Test
+    void dispatcher() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        MoveListenerTest listener = new MoveListenerTest();
+        eventManager.registerAll(listener);
+
+        List<Runnable> tasks = new ArrayList<>();
+        BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(eventManager, tasks::add, 1, OverflowPolicy.DROP_NEWEST, (handler, exception) -> Assertions.fail(exception));
+
+        // Merging does not need room in the queue.
+        Assertions.assertTrue(dispatcher.submit(new MoveEventTest("a", 1)));
+        Assertions.assertTrue(dispatcher.submit(new MoveEventTest("a", 1)));
+        Assertions.assertFalse(dispatcher.submit(new MoveEventTest("b", 1)));
+        tasks.forEach(Runnable::run);
+        Assertions.assertEquals(List.of("a:2"), listener.moves);
+        Assertions.assertEquals(1, dispatcher.getReplaced());
+        Assertions.assertEquals(1, dispatcher.getDropped());
+    }
+
+}
+
+class FailingMoveListenerTest {
+
+    @EventHandler(priority = Priority.FIRST)
+    public void FailingMoveListener(MoveEventTest event) {
+        if(event.distance < 0)
+            throw new IllegalStateException("Listener failure.");
+    }
+
+}
+
+class MoveListenerTest {
+
+    public final List<String> moves = new ArrayList<>();
+
+    @EventHandler(priority = Priority.HIGH)
+    public void CancelListener(MoveEventTest event) {
+        if(event.distance == 0)
+            event.setCanceled(true);
+    }
+
+    @EventHandler
+    public void MoveListener(MoveEventTest event) {
+        moves.add(event.entity + ":" + event.distance);
+    }
+
+}
+
+class MoveEventTest implements IEvent, ICancellable, ICoalescing<MoveEventTest> {
+    public final String entity;
+    public final int distance;
+    private boolean canceled;
+
+    public MoveEventTest(String entity, int distance) {
+        this.entity = entity;
+        this.distance = distance;
+    }
+
+    @Override
+    public Object getCoalescingKey() {
+        return entity;
+    }
+
+    @Override
+    public MoveEventTest coalesce(MoveEventTest pending) {
+        return new MoveEventTest(entity, pending.distance + distance);
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public void setCanceled(boolean canceled) {
+        this.canceled = canceled;
+    }
+}
+
+class NullCoalescingEventTest implements IEvent, ICoalescing<NullCoalescingEventTest> {
+
+    @Override
+    public Object getCoalescingKey() {
+        return 0;
+    }
+
+    @Override
+    public NullCoalescingEventTest coalesce(NullCoalescingEventTest pending) {
+        return null;
+    }
+}
@@ -0,0 +1,167 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.event.IKeyed;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PartitionedEventDispatcherTest {
+
+    @org.junit.jupiter.api.Test
+    void submit() throws InterruptedException {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        LaneListenerTest listener = new LaneListenerTest();
+        eventManager.registerAll(listener);
+
+        int keys = 16;
+        int events = 10_000;
+        PartitionedEventDispatcher dispatcher = new PartitionedEventDispatcher(eventManager, 4, 256, OverflowPolicy.BLOCK);
+
+        // Each key is published by its own producer, so its events must be called in publishing order.
+        List<Thread> producers = new ArrayList<>();
+        for(int k = 0; k < keys; k++) {
+            int key = k;
+            producers.add(Thread.ofPlatform().start(() -> {
+                for(int i = 0; i < events; i++)
+                    dispatcher.submit(new LaneEventTest(key, i));
+            }));
+        }
+        for(Thread producer : producers)
+            producer.join();
+        dispatcher.close();
+
+        Assertions.assertNull(listener.failure.get());
+        for(int k = 0; k < keys; k++) {
+            Assertions.assertEquals(events - 1, listener.last.get(k));
+            Assertions.assertEquals(1, listener.threads.get(k).size());
+        }
+
+        List<LaneStats> stats = dispatcher.getLaneStats();
+        Assertions.assertEquals(4, stats.size());
+        Assertions.assertEquals((long) keys * events, stats.stream().mapToLong(LaneStats::processed).sum());
+        Assertions.assertTrue(stats.stream().allMatch(lane -> lane.utilization() >= 0 && lane.utilization() <= 1));
+        Assertions.assertEquals(0, dispatcher.getDepth());
+        Assertions.assertThrows(IllegalStateException.class, () -> dispatcher.submit(new LaneEventTest(0, 0)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void closeWhileSubmitting() throws InterruptedException {
+        PartitionedEventDispatcher dispatcher = new PartitionedEventDispatcher(new DefaultEventManager(false), 4, 1024, OverflowPolicy.BLOCK);
+
+        AtomicLong accepted = new AtomicLong();
+        List<Thread> producers = new ArrayList<>();
+        for(int k = 0; k < 4; k++) {
+            int key = k;
+            producers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for(int i = 0; ; i++) {
+                        if(dispatcher.submit(new LaneEventTest(key, i)))
+                            accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException closed) {
+                    // Closed while submitting.
+                }
+            }));
+        }
+        Thread.sleep(20);
+        dispatcher.close();
+        for(Thread producer : producers)
+            producer.join();
+
+        // Every event accepted before the close was called, however the close raced the producers.
+        Assertions.assertEquals(accepted.get(), dispatcher.getLaneStats().stream().mapToLong(LaneStats::processed).sum());
+        Assertions.assertEquals(0, dispatcher.getDepth());
+    }
+
+    @org.junit.jupiter.api.Test
+    void getLane() {
+        try (PartitionedEventDispatcher dispatcher = new PartitionedEventDispatcher(new DefaultEventManager(false), 3, 1, OverflowPolicy.DROP_NEWEST)) {
+            Assertions.assertEquals(3, dispatcher.getLanes());
+            for(int k = 0; k < 100; k++) {
+                int lane = dispatcher.getLane(new LaneEventTest(k, 0));
+                Assertions.assertEquals(lane, dispatcher.getLane(new LaneEventTest(k, 1)));
+                Assertions.assertTrue(lane >= 0 && lane < 3);
+            }
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedCall() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        LaneListenerTest listener = new LaneListenerTest();
+        eventManager.registerAll(listener);
+        eventManager.registerAll(new FailingLaneListenerTest());
+
+        List<Handler> failed = Collections.synchronizedList(new ArrayList<>());
+        PartitionedEventDispatcher dispatcher = new PartitionedEventDispatcher(eventManager, 1, 4, OverflowPolicy.BLOCK, event -> 0,
+                Thread.ofPlatform().daemon().factory(), (handler, exception) -> {
+                    failed.add(handler);
+                    if(!Objects.isNull(handler))
+                        throw new IllegalStateException(exception);
+                });
+        for(int i = 0; i < 3; i++)
+            dispatcher.submit(new LaneEventTest(0, i));
+        dispatcher.close();
+
+        // The rethrown exception fails the first call, but the lane keeps calling the events after it.
+        Assertions.assertNull(listener.failure.get());
+        Assertions.assertEquals(2, listener.last.get(0));
+        Assertions.assertEquals(2, failed.size());
+        Assertions.assertNull(failed.get(1));
+    }
+
+}
+
+class FailingLaneListenerTest {
+
+    @EventHandler
+    public void FailingLaneListener(LaneEventTest event) {
+        if(event.sequence == 0)
+            throw new IllegalStateException("Listener failure.");
+    }
+
+}
+
+class LaneListenerTest {
+
+    public final Map<Integer, Integer> last = new ConcurrentHashMap<>();
+    public final Map<Integer, Set<Thread>> threads = new ConcurrentHashMap<>();
+    public final AtomicReference<String> failure = new AtomicReference<>();
+
+    @EventHandler
+    public void LaneListener(LaneEventTest event) {
+        int previous = last.getOrDefault(event.key, -1);
+        if(event.sequence != previous + 1)
+            failure.compareAndSet(null, "Key %d skipped from %d to %d".formatted(event.key, previous, event.sequence));
+        last.put(event.key, event.sequence);
+        threads.computeIfAbsent(event.key, key -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+    }
+
+}
+
+class LaneEventTest implements IEvent, IKeyed {
+    public final int key;
+    public final int sequence;
+
+    public LaneEventTest(int key, int sequence) {
+        this.key = key;
+        this.sequence = sequence;
+    }
+
+    @Override
+    public Object getKey() {
+        return key;
+    }
+}
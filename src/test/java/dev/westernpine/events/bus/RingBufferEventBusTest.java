@@ -0,0 +1,181 @@
+package dev.westernpine.events.bus;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+class RingBufferEventBusTest {
+
+    @org.junit.jupiter.api.Test
+    void publish() throws Exception {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        BusListenerTest listener = new BusListenerTest(4);
+        eventManager.registerAll(listener);
+
+        int producers = 4;
+        int events = 100_000;
+        RingBufferEventBus bus = new RingBufferEventBus(eventManager, 1024, WaitStrategy.yielding());
+        bus.start(Thread.ofPlatform().name("bus-consumer").factory(), 64);
+
+        List<Thread> threads = new ArrayList<>();
+        for(int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for(int i = 0; i < events; i++)
+                    bus.publish(new BusEventTest(producer, i));
+            }));
+        }
+        for(Thread thread : threads)
+            thread.join();
+        bus.close();
+
+        // Every event is called once, and each producer's events are called in the order they were published.
+        Assertions.assertNull(listener.failure.get());
+        Assertions.assertEquals(producers * events, listener.called);
+        for(int p = 0; p < producers; p++)
+            Assertions.assertEquals(events - 1, listener.last[p]);
+        Assertions.assertEquals(0, bus.size());
+        Assertions.assertThrows(IllegalStateException.class, () -> bus.publish(new BusEventTest(0, 0)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void closeWhilePublishing() throws Exception {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        int producers = 4;
+        BusListenerTest listener = new BusListenerTest(producers);
+        eventManager.registerAll(listener);
+
+        // A small ring keeps producers waiting for slots while the bus closes.
+        RingBufferEventBus bus = new RingBufferEventBus(eventManager, 8, WaitStrategy.yielding());
+        bus.start(Thread.ofPlatform().name("bus-consumer").factory(), 4);
+
+        int[] published = new int[producers];
+        List<Thread> threads = new ArrayList<>();
+        for(int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for(int i = 0; ; i++) {
+                        bus.publish(new BusEventTest(producer, i));
+                        published[producer] = i + 1;
+                    }
+                } catch (IllegalStateException closed) {
+                    // Refused once the bus closed.
+                }
+            }));
+        }
+        Thread.sleep(20);
+        bus.close();
+        for(Thread thread : threads)
+            thread.join();
+
+        // Every event published before the close was called, and no claimed sequence was left for the consumer to wait on.
+        Assertions.assertNull(listener.failure.get());
+        for(int p = 0; p < producers; p++)
+            Assertions.assertEquals(published[p] - 1, listener.last[p]);
+        Assertions.assertEquals(0, bus.size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void drain() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        BusListenerTest listener = new BusListenerTest(1);
+        eventManager.registerAll(listener);
+
+        RingBufferEventBus bus = new RingBufferEventBus(eventManager, 4, WaitStrategy.busySpin());
+        for(int i = 0; i < 4; i++)
+            Assertions.assertTrue(bus.tryPublish(new BusEventTest(0, i)));
+        Assertions.assertFalse(bus.tryPublish(new BusEventTest(0, 4)));
+        Assertions.assertEquals(4, bus.size());
+
+        Assertions.assertEquals(3, bus.drain(3));
+        Assertions.assertTrue(bus.tryPublish(new BusEventTest(0, 4)));
+        Assertions.assertEquals(2, bus.drain(Integer.MAX_VALUE));
+        Assertions.assertEquals(0, bus.drain(Integer.MAX_VALUE));
+        Assertions.assertEquals(5, listener.called);
+        Assertions.assertEquals(4, listener.last[0]);
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedCall() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        BusListenerTest listener = new BusListenerTest(1);
+        eventManager.registerAll(listener);
+        eventManager.registerAll(new FailingBusListenerTest());
+
+        List<Handler> failed = new ArrayList<>();
+        RingBufferEventBus bus = new RingBufferEventBus(eventManager, 4, WaitStrategy.busySpin(), (handler, exception) -> {
+            failed.add(handler);
+            if(!Objects.isNull(handler))
+                throw new IllegalStateException(exception);
+        });
+        for(int i = 0; i < 4; i++)
+            Assertions.assertTrue(bus.tryPublish(new BusEventTest(0, i)));
+
+        // The rethrown exception fails one call, but the rest of the batch is still called, and its slots released.
+        Assertions.assertEquals(4, bus.drain(Integer.MAX_VALUE));
+        Assertions.assertEquals(0, bus.drain(Integer.MAX_VALUE));
+        Assertions.assertNull(listener.failure.get());
+        Assertions.assertEquals(4, listener.called);
+        Assertions.assertEquals(2, failed.size());
+        Assertions.assertNull(failed.get(1));
+        Assertions.assertEquals(0, bus.size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void capacity() {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RingBufferEventBus(eventManager, 100, WaitStrategy.busySpin()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WaitStrategy.parking(0));
+    }
+
+}
+
+class FailingBusListenerTest {
+
+    @EventHandler
+    public void FailingBusListener(BusEventTest event) {
+        if(event.sequence == 1)
+            throw new IllegalStateException("Listener failure.");
+    }
+
+}
+
+class BusListenerTest {
+
+    public final int[] last;
+    public final AtomicReference<String> failure = new AtomicReference<>();
+    public int called;
+
+    public BusListenerTest(int producers) {
+        this.last = new int[producers];
+        Arrays.fill(this.last, -1);
+    }
+
+    @EventHandler
+    public void BusListener(BusEventTest event) {
+        if(event.sequence != last[event.producer] + 1)
+            failure.compareAndSet(null, "Producer %d skipped from %d to %d".formatted(event.producer, last[event.producer], event.sequence));
+        last[event.producer] = event.sequence;
+        called++;
+    }
+
+}
+
+class BusEventTest implements IEvent {
+    public final int producer;
+    public final int sequence;
+
+    public BusEventTest(int producer, int sequence) {
+        this.producer = producer;
+        this.sequence = sequence;
+    }
+}
@@ -0,0 +1,57 @@
+package dev.westernpine.events.helper;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.HandlerReference;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.List;
+
+class EventHelperTest {
+
+    @org.junit.jupiter.api.Test
+    void getHandlerReferences() {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, new ScannedListenerTest());
+        Assertions.assertEquals(1, references.size());
+        Assertions.assertTrue(EventHelper.getRegistrar(ScannedListenerTest.class).isEmpty());
+    }
+
+    @org.junit.jupiter.api.Test
+    void getHandlerReferencesFromRegistrar() {
+        Assertions.assertTrue(EventHelper.getRegistrar(RegisteredListenerTest.class).isPresent());
+
+        RegisteredListenerTest listener = new RegisteredListenerTest();
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, listener);
+        Assertions.assertEquals(1, references.size());
+
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        references.forEach(reference -> eventManager.registerListener(reference.instance(), reference.method()));
+        Assertions.assertTrue(eventManager.call(new HelperEventTest()).isEmpty());
+        Assertions.assertEquals(1, listener.calls);
+        Assertions.assertTrue(RegisteredListenerTest$$EventRegistrar.invoked); // Invoked through the registrar, instead of a runtime generated invoker.
+    }
+
+}
+
+class ScannedListenerTest {
+
+    @EventHandler
+    public void ScannedListener(HelperEventTest event) {
+    }
+
+}
+
+class RegisteredListenerTest {
+
+    public int calls = 0;
+
+    @EventHandler
+    public void RegisteredListener(HelperEventTest event) {
+        calls++;
+    }
+
+}
+
+class HelperEventTest implements IEvent {
+}
@@ -0,0 +1,27 @@
+package dev.westernpine.events.helper;
+
+import dev.westernpine.events.registrar.ListenerDescriptor;
+import dev.westernpine.events.registrar.ListenerRegistrar;
+
+import java.util.List;
+
+/**
+ * Written the same as the Events annotation processor would generate it, plus tracking its invoker was used.
+ */
+public final class RegisteredListenerTest$$EventRegistrar implements ListenerRegistrar {
+
+    static volatile boolean invoked = false;
+
+    private static final List<ListenerDescriptor> LISTENERS = List.of(
+            new ListenerDescriptor(RegisteredListenerTest.class, "RegisteredListener", HelperEventTest.class, false, (instance, event) -> {
+                invoked = true;
+                ((RegisteredListenerTest) instance).RegisteredListener((HelperEventTest) event);
+            })
+    );
+
+    @Override
+    public List<ListenerDescriptor> getListeners() {
+        return LISTENERS;
+    }
+
+}
@@ -0,0 +1,206 @@
+package dev.westernpine.events.journal;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @org.junit.jupiter.api.Test
+    void recordAndReplay() throws IOException {
+        DefaultEventManager recorder = new DefaultEventManager(false);
+        try (EventJournal journal = new EventJournal(this.directory, new JournalCodecTest(), 256)) {
+            recorder.setJournal(journal);
+            for(int i = 0; i < 100; i++)
+                recorder.call(new JournalEventTest(i));
+            recorder.call(new UnjournaledEventTest()); // Left out by the codec.
+            recorder.callAll(List.of(new JournalEventTest(100), new JournalEventTest(101)), true);
+            Assertions.assertEquals(102, journal.getRecorded());
+        }
+        Assertions.assertTrue(EventJournal.segments(this.directory).size() > 1);
+
+        JournalReplayer replayer = new JournalReplayer(this.directory, new JournalCodecTest());
+        List<JournalRecord> records = new ArrayList<>();
+        Assertions.assertEquals(102, replayer.read(records::add));
+        for(int i = 0; i < records.size(); i++) {
+            Assertions.assertEquals(i, ((JournalEventTest) records.get(i).event()).value);
+            if(i > 0)
+                Assertions.assertTrue(records.get(i).timestamp() >= records.get(i - 1).timestamp());
+        }
+
+        DefaultEventManager target = new DefaultEventManager(false);
+        JournalListenerTest listener = new JournalListenerTest();
+        target.registerAll(listener);
+        Assertions.assertEquals(102, replayer.replay(target, false, (handler, exception) -> Assertions.fail(exception)));
+        Assertions.assertEquals(102, listener.values.size());
+        Assertions.assertEquals(101, listener.values.get(101));
+
+        listener.values.clear();
+        Assertions.assertEquals(102, replayer.replayAll(target, 16, true, (handler, exception) -> Assertions.fail(exception)));
+        Assertions.assertEquals(102, listener.values.size());
+        Assertions.assertEquals(50, listener.values.get(50));
+    }
+
+    @org.junit.jupiter.api.Test
+    void replayRealTime() throws IOException, InterruptedException {
+        try (EventJournal journal = new EventJournal(this.directory, new JournalCodecTest(), 4096)) {
+            journal.record(new JournalEventTest(0));
+            Thread.sleep(50);
+            journal.record(new JournalEventTest(1));
+        }
+
+        DefaultEventManager target = new DefaultEventManager(false);
+        target.registerAll(new JournalListenerTest());
+        long start = System.nanoTime();
+        new JournalReplayer(this.directory, new JournalCodecTest()).replay(target, true, (handler, exception) -> Assertions.fail(exception));
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @org.junit.jupiter.api.Test
+    void reopen() throws IOException {
+        try (EventJournal journal = new EventJournal(this.directory, new JournalCodecTest(), 4096)) {
+            journal.record(new JournalEventTest(0));
+        }
+        try (EventJournal journal = new EventJournal(this.directory, new JournalCodecTest(), 4096)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> journal.record(new JournalEventTest(-1))); // Larger than a segment.
+            journal.record(new JournalEventTest(1));
+        }
+
+        Assertions.assertEquals(2, EventJournal.segments(this.directory).size());
+        Assertions.assertEquals(2, new JournalReplayer(this.directory, new JournalCodecTest()).read(record -> {}));
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedRecording() throws IOException {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        JournalListenerTest listener = new JournalListenerTest();
+        eventManager.registerAll(listener);
+        List<Exception> failures = new ArrayList<>();
+        eventManager.setExceptionHandler((handler, exception) -> {
+            Assertions.assertNull(handler);
+            failures.add(exception);
+        });
+
+        EventJournal journal = new EventJournal(this.directory, new JournalCodecTest(), 4096);
+        journal.close();
+        eventManager.setJournal(journal);
+
+        // The event is still dispatched, and the journal's failure reported.
+        Assertions.assertTrue(eventManager.call(new JournalEventTest(0)).isEmpty());
+        Assertions.assertTrue(eventManager.callAll(List.of(new JournalEventTest(1)), true).isEmpty());
+        Assertions.assertEquals(List.of(0, 1), listener.values);
+        Assertions.assertEquals(2, failures.size());
+        Assertions.assertInstanceOf(IllegalStateException.class, failures.get(0));
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedEncoding() throws IOException {
+        try (EventJournal journal = new EventJournal(this.directory, new FailingJournalCodecTest(), 4096)) {
+            journal.record(new JournalEventTest(0));
+            Assertions.assertThrows(IllegalStateException.class, () -> journal.record(new JournalEventTest(1)));
+            Assertions.assertFalse(journal.record(new JournalEventTest(2)));
+            journal.record(new JournalEventTest(3));
+            Assertions.assertEquals(2, journal.getRecorded());
+        }
+
+        // Partly encoded events leave nothing behind, so the events after them are still read.
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReplayer(this.directory, new JournalCodecTest()).read(records::add);
+        Assertions.assertEquals(List.of(0, 3), records.stream().map(record -> ((JournalEventTest) record.event()).value).toList());
+    }
+
+    @org.junit.jupiter.api.Test
+    void recordConcurrently() throws IOException, InterruptedException {
+        int threads = 4;
+        int events = 10_000;
+        try (EventJournal journal = new EventJournal(this.directory, new JournalCodecTest(), 4096)) {
+            List<Thread> recorders = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                int thread = t;
+                recorders.add(Thread.ofPlatform().start(() -> {
+                    for(int i = 0; i < events; i++)
+                        journal.record(new JournalEventTest(thread * events + i));
+                }));
+            }
+            for(Thread recorder : recorders)
+                recorder.join();
+            Assertions.assertEquals((long) threads * events, journal.getRecorded());
+        }
+
+        // Every event is read once, and each thread's events in the order they were recorded.
+        int[] last = new int[threads];
+        Arrays.fill(last, -1);
+        long read = new JournalReplayer(this.directory, new JournalCodecTest()).read(record -> {
+            int value = ((JournalEventTest) record.event()).value;
+            Assertions.assertEquals(last[value / events] + 1, value % events);
+            last[value / events] = value % events;
+        });
+        Assertions.assertEquals((long) threads * events, read);
+    }
+
+}
+
+class FailingJournalCodecTest extends JournalCodecTest {
+
+    @Override
+    public boolean encode(IEvent event, ByteBuffer buffer) {
+        super.encode(event, buffer);
+        if(((JournalEventTest) event).value == 1)
+            throw new IllegalStateException("Codec failure.");
+        return ((JournalEventTest) event).value != 2;
+    }
+
+}
+
+class JournalCodecTest implements EventCodec {
+
+    @Override
+    public boolean encode(IEvent event, ByteBuffer buffer) {
+        if(!(event instanceof JournalEventTest journalEvent))
+            return false;
+
+        buffer.putInt(journalEvent.value);
+        if(journalEvent.value < 0)
+            buffer.put(new byte[8192]);
+        return true;
+    }
+
+    @Override
+    public IEvent decode(ByteBuffer buffer) {
+        return new JournalEventTest(buffer.getInt());
+    }
+
+}
+
+class JournalListenerTest {
+    public final List<Integer> values = new ArrayList<>();
+
+    @EventHandler
+    public void JournalListener(JournalEventTest event) {
+        this.values.add(event.value);
+    }
+}
+
+class JournalEventTest implements IEvent {
+    public final int value;
+
+    public JournalEventTest(int value) {
+        this.value = value;
+    }
+}
+
+class UnjournaledEventTest implements IEvent {
+}
@@ -0,0 +1,105 @@
+package dev.westernpine.events.manager;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.helper.EventHelper;
+import org.junit.jupiter.api.Assertions;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+class ConcurrentEventManagerTest {
+
+    private static final long DURATION_MILLIS = 500;
+
+    @org.junit.jupiter.api.Test
+    void callWhileChurning() throws Exception {
+        // Throughput scaling is measured by ThreadedDispatchBenchmark, so this only checks every call sees a consistent snapshot.
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        Assertions.assertTrue(dispatch(threads) > 0);
+    }
+
+    private long dispatch(int threads) throws Exception {
+        DefaultEventManager eventManager = new DefaultEventManager(false);
+        StableListener stable = new StableListener();
+        EventHelper.getHandlerReferences(null, stable).forEach(reference -> eventManager.registerListener(reference.instance(), reference.method()));
+
+        Method churn = ChurnListener.class.getMethod("onEvent", ConcurrentEvent.class);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong calls = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread churner = new Thread(() -> {
+            List<Handler> handlers = new ArrayList<>();
+            while(running.get()) {
+                handlers.add(eventManager.registerListener(new ChurnListener(), churn));
+                if(handlers.size() > 16)
+                    eventManager.unregisterListener(handlers.remove(0));
+            }
+            handlers.forEach(eventManager::unregisterListener);
+        });
+
+        List<Thread> dispatchers = new ArrayList<>();
+        for(int i = 0; i < threads; i++) {
+            Thread dispatcher = new Thread(() -> {
+                try {
+                    start.await();
+                    long count = 0;
+                    while(running.get()) {
+                        ConcurrentEvent event = new ConcurrentEvent();
+                        Map<Handler, Exception> exceptions = eventManager.call(event);
+                        Assertions.assertTrue(exceptions.isEmpty());
+                        Assertions.assertTrue(event.stable); // The stable handler must never be missed by a snapshot.
+                        count++;
+                    }
+                    calls.addAndGet(count);
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+            });
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+
+        churner.start();
+        start.countDown();
+        Thread.sleep(DURATION_MILLIS);
+        running.set(false);
+
+        churner.join();
+        for(Thread dispatcher : dispatchers)
+            dispatcher.join();
+
+        if(failure.get() != null)
+            Assertions.fail(failure.get());
+
+        Assertions.assertEquals(1, eventManager.getHandlers(ConcurrentEvent.class).size()); // No churned handler was lost or left behind.
+        return calls.get();
+    }
+
+    public static class StableListener {
+        @EventHandler
+        public void onEvent(ConcurrentEvent event) {
+            event.stable = true;
+        }
+    }
+
+    public static class ChurnListener {
+        @EventHandler
+        public void onEvent(ConcurrentEvent event) {
+        }
+    }
+
+    public static class ConcurrentEvent implements IEvent {
+        public boolean stable = false;
+    }
+
+}
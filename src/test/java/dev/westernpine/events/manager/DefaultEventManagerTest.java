@@ -1,21 +1,34 @@
 package dev.westernpine.events.manager;
 
+import dev.westernpine.events.event.ICancellable;
 import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.event.IKeyed;
 import dev.westernpine.events.handler.EventHandler;
 import dev.westernpine.events.handler.Handler;
 import dev.westernpine.events.handler.HandlerReference;
 import dev.westernpine.events.handler.Priority;
 import dev.westernpine.events.helper.EventHelper;
+import com.sun.management.ThreadMXBean;
 import org.junit.Assert;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 
 import java.lang.instrument.Instrumentation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 class DefaultEventManagerTest {
 
@@ -53,6 +66,348 @@ class DefaultEventManagerTest {
         Assertions.assertTrue(this.eventManager.call(new EventTest2(0)).isEmpty());
     }
 
+    @org.junit.jupiter.api.Test
+    void handlerOrder() {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, listenerTest);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        List<Handler> handlers = this.eventManager.getHandlers(EventTest1.class);
+        Assertions.assertEquals(4, handlers.size());
+        Assertions.assertEquals(Priority.FIRST, handlers.get(0).priority());
+        Assertions.assertEquals(Priority.FIRST, handlers.get(1).priority());
+        Assertions.assertEquals(Priority.NORMAL, handlers.get(2).priority());
+        Assertions.assertEquals(Priority.NORMAL, handlers.get(3).priority());
+    }
+
+    @org.junit.jupiter.api.Test
+    void callHierarchy() {
+        HierarchyListenerTest hierarchyListener = new HierarchyListenerTest();
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, hierarchyListener);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        Assertions.assertTrue(this.eventManager.call(new EventTest4()).isEmpty());
+        Assertions.assertEquals(List.of("first", "parent", "child"), hierarchyListener.calls);
+
+        // Changing a parent event's handlers after the chain was resolved must reach the child event.
+        HierarchyListenerTest lateListener = new HierarchyListenerTest();
+        List<Handler> handlers = EventHelper.getHandlerReferences(null, lateListener).stream()
+                .map(reference -> this.eventManager.registerListener(reference.instance(), reference.method())).toList();
+        handlers.stream().filter(handler -> handler.event() != ParentEventTest.class).forEach(this.eventManager::unregisterListener);
+        hierarchyListener.calls.clear();
+        Assertions.assertTrue(this.eventManager.call(new EventTest4()).isEmpty());
+        Assertions.assertEquals(List.of("first", "parent", "child"), hierarchyListener.calls);
+        Assertions.assertEquals(List.of("parent"), lateListener.calls);
+    }
+
+    @org.junit.jupiter.api.Test
+    void callAllocationFree() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        EventHelper.getHandlerReferences(null, new NoOpListenerTest()).forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        EventTest3 unhandled = new EventTest3();
+        EventTest5 handled = new EventTest5();
+        BiConsumer<Handler, Exception> sink = (handler, exception) -> Assertions.fail(exception);
+
+        for(int i = 0; i < 100_000; i++) { // Resolve and warm up the handler chains first.
+            this.eventManager.call(unhandled);
+            this.eventManager.call(handled);
+            this.eventManager.call(handled, sink);
+        }
+
+        int calls = 1_000_000;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for(int i = 0; i < calls; i++) {
+            this.eventManager.call(unhandled);
+            this.eventManager.call(handled);
+            this.eventManager.call(handled, sink);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        // The smallest possible allocation is 16 bytes, so any per-call allocation would be millions of bytes.
+        // A few bytes may still be reported from the measurement itself, or the JIT swapping in compiled code.
+        Assertions.assertEquals(0, allocated / calls, "Allocated %d bytes over %d calls.".formatted(allocated, calls));
+    }
+
+    @org.junit.jupiter.api.Test
+    void callAll() {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, listenerTest);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        Assertions.assertTrue(this.eventManager.callAll(List.of(new EventTest1(1), new EventTest1(2), new EventTest2(1), new EventTest2(0))).isEmpty());
+    }
+
+    @org.junit.jupiter.api.Test
+    void callAllHandlerMajor() {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, listenerTest);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+
+        // Both events pass the FIRST handler before either reaches the NORMAL handler, so only the last event sees its own value.
+        EventTest1 first = new EventTest1(1);
+        EventTest1 second = new EventTest1(2);
+        Map<IEvent, Map<Handler, Exception>> exceptions = this.eventManager.callAll(List.of(first, second), true);
+        Assertions.assertEquals(1, exceptions.size());
+        Assertions.assertTrue(exceptions.containsKey(first));
+    }
+
+    @org.junit.jupiter.api.Test
+    void callException() {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(ExceptionListenerTest.class, null);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        Map<Handler, Exception> exceptions = this.eventManager.call(new EventTest3());
+        Assertions.assertEquals(1, exceptions.size());
+        Exception exception = exceptions.values().iterator().next();
+        Assertions.assertInstanceOf(InvocationTargetException.class, exception);
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @org.junit.jupiter.api.Test
+    void callAsync() throws Exception {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, listenerTest);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        Assertions.assertTrue(this.eventManager.callAsync(new EventTest1(1)).get(5, TimeUnit.SECONDS).isEmpty());
+        Assertions.assertTrue(this.eventManager.callAsync(new EventTest1(2)).get(5, TimeUnit.SECONDS).isEmpty());
+
+        HierarchyListenerTest hierarchyListener = new HierarchyListenerTest();
+        EventHelper.getHandlerReferences(null, hierarchyListener).forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        Assertions.assertTrue(this.eventManager.callAsync(new EventTest4()).get(5, TimeUnit.SECONDS).isEmpty());
+        Assertions.assertEquals(List.of("first", "parent", "child"), hierarchyListener.calls);
+    }
+
+    @org.junit.jupiter.api.Test
+    void callAsyncHandler() throws Exception {
+        AsyncListenerTest asyncListener = new AsyncListenerTest();
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, asyncListener);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+
+        CompletableFuture<Exception> reported = new CompletableFuture<>();
+        this.eventManager.setExceptionHandler((handler, exception) -> reported.complete(exception));
+
+        Assertions.assertTrue(this.eventManager.call(new EventTest5()).isEmpty()); // The asynchronous failure is not part of the result.
+        Assertions.assertTrue(asyncListener.inline);
+        Assertions.assertInstanceOf(IllegalStateException.class, reported.get(5, TimeUnit.SECONDS).getCause());
+        Assertions.assertTrue(asyncListener.sawInline);
+    }
+
+    @org.junit.jupiter.api.Test
+    void registerAll() {
+        List<HandlerReference> references = EventHelper.getHandlerReferences(null, listenerTest);
+        references.forEach(reference -> this.eventManager.registerListener(reference.instance(), reference.method()));
+        List<Handler> handlers = this.eventManager.registerAll(new ListenerTest());
+        Assertions.assertEquals(4, handlers.size());
+
+        // Bulk registration orders handlers the same as registering them one by one.
+        List<Handler> ordered = this.eventManager.getHandlers(EventTest1.class);
+        Assertions.assertEquals(4, ordered.size());
+        Assertions.assertEquals(Priority.FIRST, ordered.get(0).priority());
+        Assertions.assertSame(listenerTest, ordered.get(0).instance());
+        Assertions.assertEquals(Priority.FIRST, ordered.get(1).priority());
+        Assertions.assertNotSame(listenerTest, ordered.get(1).instance());
+        Assertions.assertSame(listenerTest, ordered.get(2).instance());
+
+        Assertions.assertEquals(1, this.eventManager.registerAll(ExceptionListenerTest.class).size());
+        Assertions.assertEquals(1, this.eventManager.call(new EventTest3()).size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void unregisterAll() {
+        this.eventManager.registerAll(listenerTest);
+        ListenerTest other = new ListenerTest();
+        this.eventManager.registerAll(other);
+        this.eventManager.registerAll(ExceptionListenerTest.class);
+
+        Assertions.assertEquals(4, this.eventManager.unregisterAll(listenerTest).size());
+        Assertions.assertTrue(this.eventManager.getHandlers(EventTest1.class).stream().allMatch(handler -> handler.instance() == other));
+        Assertions.assertTrue(this.eventManager.unregisterAll(listenerTest).isEmpty());
+
+        Assertions.assertEquals(1, this.eventManager.unregisterAll(ExceptionListenerTest.class).size());
+        Assertions.assertTrue(this.eventManager.call(new EventTest3()).isEmpty());
+        Assertions.assertEquals(2, this.eventManager.getListeners().size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void openScope() {
+        this.eventManager.registerAll(listenerTest);
+        EventScope scope = this.eventManager.openScope();
+        ListenerTest scoped = new ListenerTest();
+        scope.registerAll(scoped);
+        EventScope child = scope.openScope();
+        child.registerAll(ExceptionListenerTest.class);
+
+        // Scoped handlers are merged into the event manager's priority order.
+        List<Handler> handlers = this.eventManager.getHandlers(EventTest1.class);
+        Assertions.assertEquals(4, handlers.size());
+        Assertions.assertSame(listenerTest, handlers.get(0).instance());
+        Assertions.assertSame(scoped, handlers.get(1).instance());
+        Assertions.assertSame(listenerTest, handlers.get(2).instance());
+        Assertions.assertSame(scoped, handlers.get(3).instance());
+        Assertions.assertEquals(1, this.eventManager.call(new EventTest3()).size());
+        Assertions.assertEquals(4, scope.getHandlers().size());
+
+        scope.close();
+        Assertions.assertTrue(child.isClosed());
+        Assertions.assertTrue(this.eventManager.getHandlers(EventTest1.class).stream().allMatch(handler -> handler.instance() == listenerTest));
+        Assertions.assertTrue(this.eventManager.call(new EventTest3()).isEmpty());
+        Assertions.assertEquals(2, this.eventManager.getListeners().size());
+        Assertions.assertThrows(IllegalStateException.class, () -> scope.registerAll(scoped));
+    }
+
+    @org.junit.jupiter.api.Test
+    void closeScopeKeepsEqualHandlers() {
+        EventScope scope = this.eventManager.openScope();
+        Handler scoped = scope.registerAll(ExceptionListenerTest.class).get(0);
+        Handler unscoped = this.eventManager.registerAll(ExceptionListenerTest.class).get(0);
+        Assertions.assertEquals(scoped, unscoped);
+
+        // Only the scope's own registration is removed, even though the handlers are equal.
+        scope.close();
+        List<Handler> handlers = this.eventManager.getHandlers(EventTest3.class);
+        Assertions.assertEquals(1, handlers.size());
+        Assertions.assertSame(unscoped, handlers.get(0));
+        Assertions.assertEquals(1, this.eventManager.call(new EventTest3()).size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void registerWeak() throws InterruptedException {
+        callWeak();
+
+        // Once the listener is collected, its handlers are unregistered in the background.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(!this.eventManager.getListeners().isEmpty() && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(this.eventManager.getListeners().isEmpty());
+    }
+
+    private void callWeak() {
+        HierarchyListenerTest hierarchyListener = new HierarchyListenerTest();
+        List<Handler> handlers = this.eventManager.registerAll(hierarchyListener, true);
+        Assertions.assertTrue(handlers.stream().allMatch(handler -> handler.isWeak() && handler.target() == hierarchyListener));
+
+        Assertions.assertTrue(this.eventManager.call(new EventTest4()).isEmpty());
+        Assertions.assertEquals(List.of("first", "parent", "child"), hierarchyListener.calls);
+    }
+
+    @org.junit.jupiter.api.Test
+    void registerWeakInScope() throws InterruptedException {
+        EventScope scope = this.eventManager.openScope();
+        Assertions.assertEquals(3, scope.registerAll(new HierarchyListenerTest(), true).size());
+
+        // Once the listener is collected, the scope forgets its handlers without being closed.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(!scope.getHandlers().isEmpty() && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(scope.getHandlers().isEmpty());
+        Assertions.assertTrue(this.eventManager.getListeners().isEmpty());
+    }
+
+    @org.junit.jupiter.api.Test
+    void callKeyed() {
+        KeyedListenerTest unkeyed = new KeyedListenerTest("unkeyed");
+        KeyedListenerTest first = new KeyedListenerTest("first");
+        KeyedListenerTest second = new KeyedListenerTest("second");
+        List<String> calls = new ArrayList<>();
+        unkeyed.calls = calls;
+        first.calls = calls;
+        second.calls = calls;
+
+        this.eventManager.registerAllKeyed(first, 1);
+        this.eventManager.registerAll(unkeyed);
+        this.eventManager.registerAllKeyed(second, 2);
+
+        // Keyed handlers are merged with the unkeyed handlers in priority, then registration order.
+        Assertions.assertTrue(this.eventManager.call(new KeyedEventTest(1)).isEmpty());
+        Assertions.assertEquals(List.of("first:high", "unkeyed:high", "first:normal", "unkeyed:normal"), calls);
+
+        calls.clear();
+        this.eventManager.call(new KeyedEventTest(2));
+        Assertions.assertEquals(List.of("unkeyed:high", "second:high", "unkeyed:normal", "second:normal"), calls);
+
+        calls.clear();
+        this.eventManager.call(new KeyedEventTest(3));
+        Assertions.assertEquals(List.of("unkeyed:high", "unkeyed:normal"), calls);
+
+        calls.clear();
+        this.eventManager.callAll(List.of(new KeyedEventTest(1), new KeyedEventTest(1), new KeyedEventTest(2)), true);
+        Assertions.assertEquals(List.of("first:high", "first:high", "unkeyed:high", "unkeyed:high", "first:normal", "first:normal", "unkeyed:normal", "unkeyed:normal",
+                "unkeyed:high", "second:high", "unkeyed:normal", "second:normal"), calls);
+
+        Assertions.assertEquals(2, this.eventManager.getHandlers(KeyedEventTest.class).size());
+        Assertions.assertEquals(4, this.eventManager.getHandlers(KeyedEventTest.class, 2).size());
+        this.eventManager.unregisterAll(second);
+        Assertions.assertEquals(2, this.eventManager.getHandlers(KeyedEventTest.class, 2).size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void registerKeyedUnkeyedEvent() throws NoSuchMethodException {
+        Method method = ListenerTest.class.getMethod("TestEventListener1", EventTest1.class);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.eventManager.registerKeyed(this.listenerTest, method, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.eventManager.registerAllKeyed(this.listenerTest, 1));
+        Assertions.assertTrue(this.eventManager.getListeners().isEmpty());
+    }
+
+    @org.junit.jupiter.api.Test
+    void callParallel() {
+        ParallelListenerTest parallelListener = new ParallelListenerTest();
+        this.eventManager.registerAll(parallelListener);
+
+        // The parallel handlers wait for each other, so they only complete when run concurrently.
+        Map<Handler, Exception> exceptions = this.eventManager.call(new ParallelEventTest());
+        Assertions.assertEquals(1, exceptions.size());
+        Assertions.assertEquals("ParallelFailure", exceptions.keySet().iterator().next().method().getName());
+        Assertions.assertEquals(List.of("parallel", "parallel", "last"), parallelListener.calls);
+
+        // Cancellation is checked between tiers.
+        parallelListener.calls.clear();
+        ParallelEventTest canceled = new ParallelEventTest();
+        canceled.cancel = true;
+        this.eventManager.call(canceled);
+        Assertions.assertEquals(List.of("parallel", "parallel"), parallelListener.calls);
+    }
+
+    @org.junit.jupiter.api.Test
+    void callParallelWithoutFreeThreads() {
+        // Executors which run tasks inline, reject them, or never start them, such as a saturated bounded pool.
+        List<Runnable> queued = new ArrayList<>();
+        List<Executor> executors = List.of(Runnable::run, task -> {
+            throw new RejectedExecutionException();
+        }, queued::add);
+
+        for(Executor executor : executors) {
+            DefaultEventManager eventManager = new DefaultEventManager(false, executor);
+            IndependentParallelListenerTest listener = new IndependentParallelListenerTest();
+            eventManager.registerAll(listener);
+
+            // The calling thread runs every handler the executor does not, instead of waiting for it.
+            Assertions.assertTrue(eventManager.call(new EventTest5()).isEmpty());
+            Assertions.assertEquals(3, listener.calls.size());
+
+            // Tasks started later find every handler already run.
+            queued.forEach(Runnable::run);
+            queued.clear();
+            Assertions.assertEquals(3, listener.calls.size());
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void hasListeners() {
+        Assertions.assertFalse(this.eventManager.hasListeners(EventTest4.class));
+        Assertions.assertTrue(this.eventManager.call(EventTest4.class, () -> Assertions.fail("Event created without listeners.")).isEmpty());
+
+        HierarchyListenerTest hierarchyListener = new HierarchyListenerTest();
+        List<Handler> handlers = this.eventManager.registerAll(hierarchyListener);
+        Assertions.assertTrue(this.eventManager.hasListeners(EventTest4.class));
+        Assertions.assertTrue(this.eventManager.hasListeners(EventTest3.class)); // Through the IEvent listener.
+        Assertions.assertTrue(this.eventManager.call(EventTest4.class, EventTest4::new).isEmpty());
+        Assertions.assertEquals(List.of("first", "parent", "child"), hierarchyListener.calls);
+
+        handlers.forEach(this.eventManager::unregisterListener);
+        Assertions.assertFalse(this.eventManager.hasListeners(EventTest4.class));
+
+        this.eventManager.registerAllKeyed(new KeyedListenerTest("keyed"), 1);
+        Assertions.assertTrue(this.eventManager.hasListeners(KeyedEventTest.class));
+    }
+
     @org.junit.jupiter.api.Test
     void getListeners() {
         List<HandlerReference> references = EventHelper.getHandlerReferences(null, listenerTest);
@@ -96,6 +451,139 @@ class ListenerTest {
 
 }
 
+class ExceptionListenerTest {
+
+    @EventHandler
+    public static void ExceptionListener(EventTest3 event) {
+        throw new IllegalStateException("Listener failure.");
+    }
+
+}
+
+class HierarchyListenerTest {
+
+    public final List<String> calls = new ArrayList<>();
+
+    @EventHandler(priority = Priority.LOW)
+    public void ChildListener(EventTest4 event) {
+        calls.add("child");
+    }
+
+    @EventHandler
+    public void ParentListener(ParentEventTest event) {
+        calls.add("parent");
+    }
+
+    @EventHandler(priority = Priority.FIRST)
+    public void FirstListener(IEvent event) {
+        calls.add("first");
+    }
+
+}
+
+class AsyncListenerTest {
+
+    public volatile boolean inline = false;
+    public volatile boolean sawInline = false;
+
+    @EventHandler(priority = Priority.FIRST, async = true)
+    public void AsyncListener(EventTest5 event) {
+        sawInline = inline; // Asynchronous handlers only run after the inline handlers, regardless of priority.
+        throw new IllegalStateException("Asynchronous failure.");
+    }
+
+    @EventHandler(priority = Priority.LAST)
+    public void InlineListener(EventTest5 event) {
+        inline = true;
+    }
+
+}
+
+class NoOpListenerTest {
+
+    @EventHandler(priority = Priority.HIGH)
+    public void NoOpListener1(EventTest5 event) {
+    }
+
+    @EventHandler
+    public void NoOpListener2(EventTest5 event) {
+    }
+
+}
+
+class ParallelListenerTest {
+
+    public final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final CyclicBarrier barrier = new CyclicBarrier(3);
+
+    @EventHandler(priority = Priority.HIGH, parallel = true)
+    public void ParallelListener1(ParallelEventTest event) throws Exception {
+        barrier.await(5, TimeUnit.SECONDS);
+        calls.add("parallel");
+        event.setCanceled(event.cancel);
+    }
+
+    @EventHandler(priority = Priority.HIGH, parallel = true)
+    public void ParallelListener2(ParallelEventTest event) throws Exception {
+        barrier.await(5, TimeUnit.SECONDS);
+        calls.add("parallel");
+    }
+
+    @EventHandler(priority = Priority.HIGH, parallel = true)
+    public void ParallelFailure(ParallelEventTest event) throws Exception {
+        barrier.await(5, TimeUnit.SECONDS);
+        throw new IllegalStateException("Parallel failure.");
+    }
+
+    @EventHandler(priority = Priority.LAST)
+    public void LastListener(ParallelEventTest event) {
+        calls.add("last");
+    }
+
+}
+
+class IndependentParallelListenerTest {
+
+    public final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+    @EventHandler(parallel = true)
+    public void ParallelListener1(EventTest5 event) {
+        calls.add("parallel");
+    }
+
+    @EventHandler(parallel = true)
+    public void ParallelListener2(EventTest5 event) {
+        calls.add("parallel");
+    }
+
+    @EventHandler(parallel = true)
+    public void ParallelListener3(EventTest5 event) {
+        calls.add("parallel");
+    }
+
+}
+
+class KeyedListenerTest {
+
+    public final String name;
+    public List<String> calls;
+
+    public KeyedListenerTest(String name) {
+        this.name = name;
+    }
+
+    @EventHandler(priority = Priority.HIGH)
+    public void HighListener(KeyedEventTest event) {
+        calls.add(name + ":high");
+    }
+
+    @EventHandler
+    public void NormalListener(KeyedEventTest event) {
+        calls.add(name + ":normal");
+    }
+
+}
+
 class EventTest1 implements IEvent {
     public int value;
 
@@ -109,4 +597,38 @@ class EventTest2 implements IEvent {
     public EventTest2(int value) {
         this.value = value;
     }
-}
\ No newline at end of file
+}
+class EventTest3 implements IEvent {
+}
+interface ParentEventTest extends IEvent {
+}
+class EventTest4 implements ParentEventTest {
+}
+class EventTest5 implements IEvent {
+}
+class ParallelEventTest implements IEvent, ICancellable {
+    public boolean cancel;
+    private volatile boolean canceled;
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public void setCanceled(boolean canceled) {
+        this.canceled = canceled;
+    }
+}
+class KeyedEventTest implements IEvent, IKeyed {
+    public final int key;
+
+    public KeyedEventTest(int key) {
+        this.key = key;
+    }
+
+    @Override
+    public Object getKey() {
+        return key;
+    }
+}
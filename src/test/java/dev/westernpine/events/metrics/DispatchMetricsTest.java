@@ -0,0 +1,164 @@
+package dev.westernpine.events.metrics;
+
+import dev.westernpine.events.event.ICancellable;
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.handler.Priority;
+import dev.westernpine.events.helper.EventHelper;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+class DispatchMetricsTest {
+
+    private DefaultEventManager eventManager;
+    private DispatchMetrics metrics;
+    private List<Handler> handlers;
+
+    public DispatchMetricsTest() {
+        this.eventManager = new DefaultEventManager(false);
+        this.metrics = new DispatchMetrics();
+        this.eventManager.setMetrics(this.metrics);
+        this.handlers = EventHelper.getHandlerReferences(null, new MetricsListenerTest()).stream()
+                .map(reference -> this.eventManager.registerListener(reference.instance(), reference.method())).toList();
+    }
+
+    @org.junit.jupiter.api.Test
+    void recordCalls() {
+        this.eventManager.call(new MetricsEventTest(false, false));
+        this.eventManager.call(new MetricsEventTest(false, true));
+        this.eventManager.call(new MetricsEventTest(true, false));
+
+        MetricsSnapshot snapshot = this.metrics.snapshot();
+        EventMetrics event = snapshot.events().get(MetricsEventTest.class);
+        Assertions.assertEquals(3, event.dispatches());
+        Assertions.assertEquals(1, event.canceled());
+        Assertions.assertEquals(1, event.exceptions());
+
+        Handler canceling = this.handlers.stream().filter(handler -> handler.method().getName().equals("CancelListener")).findFirst().orElseThrow();
+        Handler failing = this.handlers.stream().filter(handler -> handler.method().getName().equals("FailingListener")).findFirst().orElseThrow();
+        Assertions.assertEquals(3, snapshot.handlers().get(canceling).invocations());
+        Assertions.assertEquals(2, snapshot.handlers().get(failing).invocations()); // Skipped once it was canceled.
+        Assertions.assertEquals(1, snapshot.handlers().get(failing).exceptions());
+        Assertions.assertEquals(2, snapshot.slowestHandlers(2).size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void recordEqualHandlers() {
+        Handler handler = this.handlers.get(0);
+        Handler duplicate = this.eventManager.registerListener(handler.instance(), handler.method());
+        Assertions.assertEquals(handler, duplicate);
+        this.eventManager.call(new MetricsEventTest(false, false));
+
+        // Equal handlers are recorded apart, and forgetting one keeps the other.
+        Assertions.assertEquals(1, this.metrics.snapshot().handlers().get(handler).invocations());
+        Assertions.assertEquals(1, this.metrics.snapshot().handlers().get(duplicate).invocations());
+        this.eventManager.unregisterListener(duplicate);
+        Assertions.assertFalse(this.metrics.snapshot().handlers().containsKey(duplicate));
+        Assertions.assertEquals(1, this.metrics.snapshot().handlers().get(handler).invocations());
+    }
+
+    @org.junit.jupiter.api.Test
+    void unregisterDuringCall() throws Exception {
+        SelfUnregisteringListenerTest listener = new SelfUnregisteringListenerTest(this.eventManager);
+        listener.handler = this.eventManager.registerListener(listener, SelfUnregisteringListenerTest.class.getMethod("Listener", UnregisterEventTest.class));
+        Assertions.assertTrue(this.metrics.snapshot().handlers().containsKey(listener.handler));
+
+        // Recording the call that unregistered the handler must not track it again.
+        this.eventManager.call(new UnregisterEventTest());
+        Assertions.assertFalse(this.metrics.snapshot().handlers().containsKey(listener.handler));
+    }
+
+    @org.junit.jupiter.api.Test
+    void disable() {
+        this.eventManager.setMetrics(null);
+        this.eventManager.call(new MetricsEventTest(false, false));
+        Assertions.assertTrue(this.metrics.snapshot().events().isEmpty());
+    }
+
+    @org.junit.jupiter.api.Test
+    void registerMBean() throws Exception {
+        this.eventManager.call(new MetricsEventTest(false, false));
+        ObjectName name = this.metrics.registerMBean("test");
+        try {
+            TabularData counts = (TabularData) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "DispatchCounts");
+            Assertions.assertEquals(1, counts.size());
+        } finally {
+            this.metrics.unregisterMBean();
+        }
+        Assertions.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @org.junit.jupiter.api.Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(int i = 0; i < 99; i++)
+            histogram.record(100);
+        histogram.record(1_000_000);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(100, snapshot.count());
+        Assertions.assertEquals(1_000_000, snapshot.maxNanos());
+        Assertions.assertTrue(snapshot.percentileNanos(0.5) >= 100 && snapshot.percentileNanos(0.5) < 200);
+        Assertions.assertEquals(1_000_000, snapshot.percentileNanos(1));
+    }
+
+}
+
+class MetricsListenerTest {
+
+    @EventHandler(priority = Priority.FIRST)
+    public void CancelListener(MetricsEventTest event) {
+        event.setCanceled(event.cancel);
+    }
+
+    @EventHandler
+    public void FailingListener(MetricsEventTest event) {
+        if(event.fail)
+            throw new IllegalStateException("Listener failure.");
+    }
+
+}
+
+class SelfUnregisteringListenerTest {
+    private final DefaultEventManager eventManager;
+    public Handler handler;
+
+    public SelfUnregisteringListenerTest(DefaultEventManager eventManager) {
+        this.eventManager = eventManager;
+    }
+
+    @EventHandler
+    public void Listener(UnregisterEventTest event) {
+        this.eventManager.unregisterListener(this.handler);
+    }
+
+}
+
+class UnregisterEventTest implements IEvent {}
+
+class MetricsEventTest implements IEvent, ICancellable {
+    public final boolean cancel;
+    public final boolean fail;
+    private boolean canceled;
+
+    public MetricsEventTest(boolean cancel, boolean fail) {
+        this.cancel = cancel;
+        this.fail = fail;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public void setCanceled(boolean canceled) {
+        this.canceled = canceled;
+    }
+}
@@ -0,0 +1,125 @@
+package dev.westernpine.events.watchdog;
+
+import dev.westernpine.events.event.IEvent;
+import dev.westernpine.events.handler.EventHandler;
+import dev.westernpine.events.handler.Handler;
+import dev.westernpine.events.manager.DefaultEventManager;
+import org.junit.jupiter.api.Assertions;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class HandlerWatchdogTest {
+
+    private final DefaultEventManager eventManager = new DefaultEventManager(false);
+    private final WatchdogListenerTest listener = new WatchdogListenerTest();
+
+    public HandlerWatchdogTest() {
+        this.eventManager.registerAll(this.listener);
+    }
+
+    @org.junit.jupiter.api.Test
+    void disable() throws InterruptedException {
+        this.eventManager.setWatchdog(new HandlerWatchdog(Duration.ofSeconds(1), 2, Duration.ofMillis(50), BreakerAction.DISABLE));
+
+        Assertions.assertEquals(1, this.eventManager.call(new WatchdogEventTest(true, 0)).size());
+        Assertions.assertTrue(this.listener.tripped.isEmpty());
+        Assertions.assertEquals(1, this.eventManager.call(new WatchdogEventTest(true, 0)).size());
+        Assertions.assertEquals(1, this.listener.tripped.size());
+        Assertions.assertTrue(this.listener.tripped.get(0).failed());
+        Assertions.assertTrue(this.eventManager.getWatchdog().isTripped(this.listener.tripped.get(0).handler()));
+
+        Assertions.assertTrue(this.eventManager.call(new WatchdogEventTest(true, 0)).isEmpty()); // Skipped while tripped.
+        Assertions.assertEquals(2, this.listener.calls.size());
+
+        Thread.sleep(60);
+        Assertions.assertTrue(this.eventManager.call(new WatchdogEventTest(false, 0)).isEmpty());
+        Assertions.assertEquals(3, this.listener.calls.size());
+        Assertions.assertEquals(1, this.listener.reset.size());
+        Assertions.assertFalse(this.eventManager.getWatchdog().isTripped(this.listener.reset.get(0).handler()));
+    }
+
+    @org.junit.jupiter.api.Test
+    void demote() throws InterruptedException {
+        this.eventManager.setWatchdog(new HandlerWatchdog(Duration.ofMillis(1), 1, Duration.ofMinutes(1), BreakerAction.DEMOTE));
+
+        this.eventManager.call(new WatchdogEventTest(false, 5)); // Overruns its 1ms budget.
+        Assertions.assertEquals(1, this.listener.tripped.size());
+        Assertions.assertFalse(this.listener.tripped.get(0).failed());
+
+        this.eventManager.call(new WatchdogEventTest(false, 0));
+        Assertions.assertTrue(this.listener.demoted.await(5, TimeUnit.SECONDS));
+        Assertions.assertNotSame(Thread.currentThread(), this.listener.threads.get(1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void equalHandlers() {
+        HandlerWatchdog watchdog = new HandlerWatchdog(Duration.ofSeconds(1), 1, Duration.ofMinutes(1), BreakerAction.DISABLE);
+        Handler handler = this.eventManager.getHandlers(WatchdogEventTest.class).get(0);
+        Handler duplicate = this.eventManager.registerListener(handler.instance(), handler.method());
+        Assertions.assertEquals(handler, duplicate);
+        this.eventManager.setWatchdog(watchdog);
+
+        // Equal handlers have breakers of their own.
+        Assertions.assertNotNull(watchdog.record(duplicate, 0, true, System.nanoTime()));
+        Assertions.assertTrue(watchdog.isTripped(duplicate));
+        Assertions.assertFalse(watchdog.isTripped(handler));
+
+        // Unregistered handlers are forgotten, and never watched again.
+        this.eventManager.unregisterListener(duplicate);
+        Assertions.assertFalse(watchdog.isTripped(duplicate));
+        Assertions.assertNull(watchdog.record(duplicate, 0, true, System.nanoTime()));
+        Assertions.assertFalse(watchdog.isTripped(duplicate));
+    }
+
+    @org.junit.jupiter.api.Test
+    void budget() {
+        HandlerWatchdog watchdog = new HandlerWatchdog(Duration.ofMillis(1), 1, Duration.ofMinutes(1), BreakerAction.DISABLE);
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(10), watchdog.getBudgetNanos(this.eventManager.getHandlers(HandlerTrippedEvent.class).get(0)));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(1), watchdog.getBudgetNanos(this.eventManager.getHandlers(WatchdogEventTest.class).get(0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HandlerWatchdog(Duration.ofMillis(1), 0, Duration.ofMinutes(1), BreakerAction.DISABLE));
+    }
+
+}
+
+class WatchdogListenerTest {
+    public final List<WatchdogEventTest> calls = new CopyOnWriteArrayList<>();
+    public final List<Thread> threads = new CopyOnWriteArrayList<>();
+    public final List<HandlerTrippedEvent> tripped = new CopyOnWriteArrayList<>();
+    public final List<HandlerResetEvent> reset = new CopyOnWriteArrayList<>();
+    public final CountDownLatch demoted = new CountDownLatch(2);
+
+    @EventHandler
+    public void WatchedListener(WatchdogEventTest event) throws InterruptedException {
+        this.calls.add(event);
+        this.threads.add(Thread.currentThread());
+        this.demoted.countDown();
+        if(event.sleepMillis > 0)
+            Thread.sleep(event.sleepMillis);
+        if(event.fail)
+            throw new IllegalStateException("Listener failure.");
+    }
+
+    @EventHandler(budgetMicros = 10_000_000)
+    public void TrippedListener(HandlerTrippedEvent event) {
+        this.tripped.add(event);
+    }
+
+    @EventHandler
+    public void ResetListener(HandlerResetEvent event) {
+        this.reset.add(event);
+    }
+}
+
+class WatchdogEventTest implements IEvent {
+    public final boolean fail;
+    public final long sleepMillis;
+
+    public WatchdogEventTest(boolean fail, long sleepMillis) {
+        this.fail = fail;
+        this.sleepMillis = sleepMillis;
+    }
+}